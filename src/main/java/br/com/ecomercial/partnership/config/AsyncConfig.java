@@ -1,5 +1,8 @@
 package br.com.ecomercial.partnership.config;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -21,4 +24,63 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    @Bean(name = "closingTaskExecutor")
+    public Executor closingTaskExecutor(@Value("${closing.parallel.max-concurrency:4}") int maxConcurrency) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(Integer.MAX_VALUE);
+        executor.setThreadNamePrefix("Closing-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool do cálculo de bônus em lote; a concorrência padrão acompanha o tamanho do pool de conexões.
+     * Expõe a fila de tarefas e as tarefas em execução como métricas
+     */
+    @Bean(name = "bonusTaskExecutor")
+    public Executor bonusTaskExecutor(@Value("${bonus.batch.max-concurrency:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrency,
+                                      MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(Integer.MAX_VALUE);
+        executor.setThreadNamePrefix("Bonus-");
+        executor.initialize();
+
+        Gauge.builder("bonus.executor.queue.depth", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("Bonus calculation tasks waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("bonus.executor.in-flight", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Bonus calculation tasks currently running")
+                .register(meterRegistry);
+        return executor;
+    }
+
+    /**
+     * Atualizações em segundo plano do cache de dashboard (stale-while-revalidate)
+     */
+    @Bean(name = "dashboardRefreshExecutor")
+    public Executor dashboardRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("DashboardRefresh-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "closingJobExecutor")
+    public Executor closingJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("ClosingJob-");
+        executor.initialize();
+        return executor;
+    }
 }
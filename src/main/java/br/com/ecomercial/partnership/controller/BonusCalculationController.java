@@ -1,14 +1,18 @@
 package br.com.ecomercial.partnership.controller;
 
 import br.com.ecomercial.partnership.dto.BonusCalculationResponse;
+import br.com.ecomercial.partnership.dto.BonusSimulationRequest;
+import br.com.ecomercial.partnership.dto.BonusSimulationResponse;
 import br.com.ecomercial.partnership.repository.PartnerRepository;
 import br.com.ecomercial.partnership.service.BonusCalculationService;
+import br.com.ecomercial.partnership.service.BonusSimulationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -26,6 +30,7 @@ import java.util.List;
 public class BonusCalculationController {
 
     private final BonusCalculationService bonusCalculationService;
+    private final BonusSimulationService bonusSimulationService;
     private final PartnerRepository partnerRepository;
 
     @GetMapping("/partner/{partnerId}/period/{period}")
@@ -97,6 +102,25 @@ public class BonusCalculationController {
         return ResponseEntity.ok(responses);
     }
 
+    @PostMapping("/simulate")
+    @Operation(summary = "Simular políticas de bônus", description = "Calcula o custo total e a distribuição de pagamentos de políticas candidatas sobre todos os parceiros ativos nos meses informados")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Simulação realizada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos"),
+            @ApiResponse(responseCode = "403", description = "Apenas administradores podem acessar")
+    })
+    public ResponseEntity<BonusSimulationResponse> simulateBonusPolicies(@Valid @RequestBody BonusSimulationRequest request) {
+        // Verificar se é admin
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        br.com.ecomercial.partnership.entity.User currentUser = (br.com.ecomercial.partnership.entity.User) auth.getPrincipal();
+
+        if (currentUser.getRole() != br.com.ecomercial.partnership.entity.User.Role.ADMIN) {
+            throw new RuntimeException("Access denied - Admin role required");
+        }
+
+        return ResponseEntity.ok(bonusSimulationService.simulate(request));
+    }
+
     @GetMapping("/my-bonus/current-month")
     @Operation(summary = "Meu bônus do mês atual", description = "Calcula bônus de desempenho do usuário logado para o mês atual. Para admins, retorna bônus do primeiro parceiro encontrado.")
     @ApiResponses(value = {
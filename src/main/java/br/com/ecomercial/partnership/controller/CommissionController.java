@@ -1,11 +1,27 @@
 package br.com.ecomercial.partnership.controller;
 
+import br.com.ecomercial.partnership.dto.CommissionBulkTransitionRequest;
+import br.com.ecomercial.partnership.dto.CommissionBulkTransitionResponse;
+import br.com.ecomercial.partnership.dto.CommissionPageResponse;
 import br.com.ecomercial.partnership.dto.CommissionResponse;
+import br.com.ecomercial.partnership.entity.Commission;
 import br.com.ecomercial.partnership.service.CommissionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.YearMonth;
 import java.util.List;
 
@@ -14,7 +30,10 @@ import java.util.List;
 @RequiredArgsConstructor
 public class CommissionController {
     
+    private static final int EXPORT_FLUSH_ROWS = 500;
+
     private final CommissionService commissionService;
+    private final ObjectMapper objectMapper;
     
     @PostMapping("/calculate/{year}/{month}")
     public ResponseEntity<Void> calculateCommissionsForMonth(
@@ -50,6 +69,39 @@ public class CommissionController {
         return ResponseEntity.ok(commissions);
     }
     
+    @GetMapping("/page")
+    public ResponseEntity<CommissionPageResponse> getCommissionsPage(
+            @RequestParam(required = false) String partnerId,
+            @RequestParam(required = false) Commission.Status status,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "100") int size) {
+        CommissionPageResponse page = commissionService.getCommissionsPage(partnerId, status, month, afterId, size);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportCommissions(
+            @RequestParam(required = false) String partnerId,
+            @RequestParam(required = false) Commission.Status status,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            long[] written = {0};
+            commissionService.streamCommissions(partnerId, status, month, commission -> {
+                writeLine(writer, commission);
+                // Entregar as linhas ao cliente conforme são lidas
+                if (++written[0] % EXPORT_FLUSH_ROWS == 0) {
+                    flush(writer);
+                }
+            });
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+    
     @GetMapping
     public ResponseEntity<List<CommissionResponse>> getAllCommissions() {
         List<CommissionResponse> commissions = commissionService.getAllCommissions();
@@ -67,4 +119,35 @@ public class CommissionController {
         commissionService.payCommission(commissionId);
         return ResponseEntity.ok().build();
     }
+
+    @PutMapping("/bulk/approve")
+    public ResponseEntity<CommissionBulkTransitionResponse> approveCommissions(
+            @Valid @RequestBody CommissionBulkTransitionRequest request,
+            HttpServletRequest httpRequest) {
+        return ResponseEntity.ok(commissionService.approveCommissions(request, httpRequest));
+    }
+
+    @PutMapping("/bulk/pay")
+    public ResponseEntity<CommissionBulkTransitionResponse> payCommissions(
+            @Valid @RequestBody CommissionBulkTransitionRequest request,
+            HttpServletRequest httpRequest) {
+        return ResponseEntity.ok(commissionService.payCommissions(request, httpRequest));
+    }
+
+    private void writeLine(Writer writer, Object value) {
+        try {
+            writer.write(objectMapper.writeValueAsString(value));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void flush(Writer writer) {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
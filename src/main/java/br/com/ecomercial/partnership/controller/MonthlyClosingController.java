@@ -1,8 +1,14 @@
 package br.com.ecomercial.partnership.controller;
 
 import br.com.ecomercial.partnership.dto.*;
+import br.com.ecomercial.partnership.entity.MonthlyClosing;
 import br.com.ecomercial.partnership.service.AuditService;
+import br.com.ecomercial.partnership.service.ClosingBackfillService;
+import br.com.ecomercial.partnership.service.ClosingJobService;
+import br.com.ecomercial.partnership.service.ClusteredClosingService;
 import br.com.ecomercial.partnership.service.MonthlyClosingService;
+import br.com.ecomercial.partnership.service.ParallelClosingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -14,9 +20,17 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.YearMonth;
 import java.util.List;
 
@@ -28,7 +42,12 @@ import java.util.List;
 public class MonthlyClosingController {
 
     private final MonthlyClosingService monthlyClosingService;
+    private final ParallelClosingService parallelClosingService;
+    private final ClosingJobService closingJobService;
+    private final ClosingBackfillService closingBackfillService;
+    private final ClusteredClosingService clusteredClosingService;
     private final AuditService auditService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/run")
     @Operation(summary = "Executar fechamento mensal", description = "Executa o fechamento mensal para um mês específico, calculando comissões e bônus")
@@ -40,10 +59,12 @@ public class MonthlyClosingController {
     })
     public ResponseEntity<MonthlyClosingResponse> runMonthlyClosing(
             @Parameter(description = "Mês de referência no formato YYYY-MM", example = "2025-10") 
-            @RequestParam String month) {
+            @RequestParam String month,
+            @Parameter(description = "Modo de execução do fechamento", example = "SEQUENTIAL")
+            @RequestParam(defaultValue = "SEQUENTIAL") MonthlyClosing.ExecutionMode mode) {
         
         YearMonth referenceMonth = YearMonth.parse(month);
-        MonthlyClosingResponse response = monthlyClosingService.runMonthlyClosing(referenceMonth);
+        MonthlyClosingResponse response = runClosing(referenceMonth, mode);
         return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
     }
 
@@ -59,10 +80,78 @@ public class MonthlyClosingController {
             @Valid @RequestBody ClosingRequest request) {
         
         YearMonth referenceMonth = YearMonth.parse(request.getMonth());
-        MonthlyClosingResponse response = monthlyClosingService.runMonthlyClosing(referenceMonth);
+        MonthlyClosing.ExecutionMode mode = request.getMode() != null ? request.getMode() : MonthlyClosing.ExecutionMode.SEQUENTIAL;
+        MonthlyClosingResponse response = runClosing(referenceMonth, mode);
         return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
     }
 
+    @PostMapping("/jobs")
+    @Operation(summary = "Submeter job de fechamento mensal", description = "Aceita o fechamento mensal para execução em background e retorna o ID do job para acompanhamento")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Job de fechamento aceito"),
+            @ApiResponse(responseCode = "409", description = "Fechamento já existe ou job em execução para o mês"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos"),
+            @ApiResponse(responseCode = "403", description = "Acesso negado")
+    })
+    public ResponseEntity<ClosingJobResponse> submitClosingJob(
+            @Parameter(description = "Mês de referência no formato YYYY-MM", example = "2025-10")
+            @RequestParam String month) {
+
+        YearMonth referenceMonth = YearMonth.parse(month);
+        ClosingJobResponse response = closingJobService.submit(referenceMonth);
+        return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    @Operation(summary = "Consultar job de fechamento", description = "Retorna o progresso de um job de fechamento: parceiros processados, taxa e tempo estimado")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Progresso retornado com sucesso"),
+            @ApiResponse(responseCode = "404", description = "Job não encontrado"),
+            @ApiResponse(responseCode = "403", description = "Acesso negado")
+    })
+    public ResponseEntity<ClosingJobResponse> getClosingJob(
+            @Parameter(description = "ID do job de fechamento", example = "closing-2025-10-1a2b3c4d")
+            @PathVariable String jobId) {
+
+        ClosingJobResponse response = closingJobService.getJob(jobId);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/backfill")
+    @Operation(summary = "Refechar uma faixa de meses", description = "Reabre e recalcula em background os fechamentos de fromMonth a toMonth, lendo a carteira de clientes uma vez para todos os meses")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Backfill aceito"),
+            @ApiResponse(responseCode = "409", description = "Backfill ou job de fechamento já em execução"),
+            @ApiResponse(responseCode = "400", description = "Faixa de meses inválida"),
+            @ApiResponse(responseCode = "403", description = "Acesso negado")
+    })
+    public ResponseEntity<ClosingBackfillResponse> submitBackfill(
+            @Parameter(description = "Mês inicial no formato YYYY-MM", example = "2025-01")
+            @RequestParam String fromMonth,
+            @Parameter(description = "Mês final no formato YYYY-MM", example = "2025-06")
+            @RequestParam String toMonth,
+            @Parameter(description = "Justificativa registrada na reabertura dos meses concluídos", example = "Correção da regra TYPE_2")
+            @RequestParam String justification) {
+
+        ClosingBackfillResponse response = closingBackfillService.submit(YearMonth.parse(fromMonth), YearMonth.parse(toMonth), justification);
+        return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/backfill/{backfillId}")
+    @Operation(summary = "Consultar backfill", description = "Retorna o progresso de um backfill por mês")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Progresso retornado com sucesso"),
+            @ApiResponse(responseCode = "404", description = "Backfill não encontrado"),
+            @ApiResponse(responseCode = "403", description = "Acesso negado")
+    })
+    public ResponseEntity<ClosingBackfillResponse> getBackfill(
+            @Parameter(description = "ID do backfill", example = "backfill-1a2b3c4d")
+            @PathVariable String backfillId) {
+
+        ClosingBackfillResponse response = closingBackfillService.getBackfill(backfillId);
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/{year}/{month}/reopen")
     @Operation(summary = "Reabrir fechamento mensal", description = "Reabre um fechamento mensal para correções administrativas")
     @ApiResponses(value = {
@@ -87,6 +176,29 @@ public class MonthlyClosingController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(value = "/{year}/{month}/dry-run", produces = "application/x-ndjson")
+    @Operation(summary = "Simular fechamento mensal", description = "Calcula o fechamento sem gravar e retorna, em NDJSON, uma linha por cliente adicionado, removido ou alterado em relação ao fechamento persistido, seguida de uma linha final com o resumo e as variações por parceiro")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Diferenças retornadas com sucesso"),
+            @ApiResponse(responseCode = "403", description = "Acesso negado")
+    })
+    public ResponseEntity<StreamingResponseBody> dryRunClosing(
+            @Parameter(description = "Ano de referência", example = "2025") @PathVariable int year,
+            @Parameter(description = "Mês de referência", example = "10") @PathVariable int month) {
+
+        YearMonth referenceMonth = YearMonth.of(year, month);
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            ClosingDryRunSummary summary = monthlyClosingService.dryRunClosing(referenceMonth,
+                    entry -> writeLine(writer, entry));
+            writeLine(writer, summary);
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     @GetMapping("/{year}/{month}")
     @Operation(summary = "Obter fechamento por mês", description = "Retorna os detalhes de um fechamento mensal específico")
     @ApiResponses(value = {
@@ -103,6 +215,28 @@ public class MonthlyClosingController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/{year}/{month}/details")
+    @Operation(summary = "Listar detalhes do fechamento", description = "Retorna os detalhes por cliente de um fechamento paginados por cursor (partnerId, clientId)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de detalhes retornada com sucesso"),
+            @ApiResponse(responseCode = "404", description = "Fechamento não encontrado"),
+            @ApiResponse(responseCode = "403", description = "Acesso negado")
+    })
+    public ResponseEntity<ClosingDetailPageResponse> getClosingDetails(
+            @Parameter(description = "Ano de referência", example = "2025") @PathVariable int year,
+            @Parameter(description = "Mês de referência", example = "10") @PathVariable int month,
+            @Parameter(description = "Cursor: parceiro do último item da página anterior", example = "P-1001")
+            @RequestParam(required = false) String afterPartnerId,
+            @Parameter(description = "Cursor: cliente do último item da página anterior", example = "1500")
+            @RequestParam(required = false) Long afterClientId,
+            @Parameter(description = "Tamanho da página (máximo 1000)", example = "100")
+            @RequestParam(defaultValue = "100") int size) {
+
+        YearMonth referenceMonth = YearMonth.of(year, month);
+        ClosingDetailPageResponse page = monthlyClosingService.getClosingDetails(referenceMonth, afterPartnerId, afterClientId, size);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping
     @Operation(summary = "Listar todos os fechamentos", description = "Retorna uma lista de todos os fechamentos mensais ordenados por mês")
     @ApiResponses(value = {
@@ -115,7 +249,7 @@ public class MonthlyClosingController {
     }
 
     @GetMapping("/{year}/{month}/partners")
-    @Operation(summary = "Obter resumo por parceiros", description = "Retorna o resumo do fechamento agrupado por parceiros")
+    @Operation(summary = "Obter resumo por parceiros", description = "Retorna o resumo do fechamento agrupado por parceiros, sem os detalhes por cliente")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Resumo por parceiros retornado com sucesso"),
             @ApiResponse(responseCode = "404", description = "Fechamento não encontrado"),
@@ -130,6 +264,23 @@ public class MonthlyClosingController {
         return ResponseEntity.ok(summaries);
     }
 
+    @GetMapping("/{year}/{month}/partners/{partnerId}")
+    @Operation(summary = "Obter resumo de um parceiro", description = "Retorna o resumo do fechamento de um parceiro com os detalhes por cliente")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resumo do parceiro retornado com sucesso"),
+            @ApiResponse(responseCode = "404", description = "Fechamento ou parceiro não encontrado"),
+            @ApiResponse(responseCode = "403", description = "Acesso negado")
+    })
+    public ResponseEntity<PartnerClosingSummaryResponse> getPartnerSummary(
+            @Parameter(description = "Ano de referência", example = "2025") @PathVariable int year,
+            @Parameter(description = "Mês de referência", example = "10") @PathVariable int month,
+            @Parameter(description = "ID do parceiro", example = "P-1001") @PathVariable String partnerId) {
+
+        YearMonth referenceMonth = YearMonth.of(year, month);
+        PartnerClosingSummaryResponse summary = monthlyClosingService.getPartnerSummary(referenceMonth, partnerId);
+        return ResponseEntity.ok(summary);
+    }
+
     @GetMapping("/status/{status}")
     @Operation(summary = "Listar fechamentos por status", description = "Retorna fechamentos filtrados por status")
     @ApiResponses(value = {
@@ -143,5 +294,30 @@ public class MonthlyClosingController {
         List<MonthlyClosingResponse> closings = monthlyClosingService.getAllClosings();
         return ResponseEntity.ok(closings);
     }
-}
 
+    private void writeLine(Writer writer, Object value) {
+        try {
+            writer.write(objectMapper.writeValueAsString(value));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private MonthlyClosingResponse runClosing(YearMonth referenceMonth, MonthlyClosing.ExecutionMode mode) {
+        if (mode == MonthlyClosing.ExecutionMode.CLUSTERED) {
+            return clusteredClosingService.runMonthlyClosing(referenceMonth);
+        }
+
+        // Lease do mês no banco: impede que duas réplicas executem o mesmo fechamento
+        return clusteredClosingService.runExclusively(referenceMonth, () -> {
+            if (mode == MonthlyClosing.ExecutionMode.PARALLEL) {
+                return parallelClosingService.runMonthlyClosing(referenceMonth);
+            }
+            if (mode == MonthlyClosing.ExecutionMode.INCREMENTAL) {
+                return monthlyClosingService.runIncrementalClosing(referenceMonth);
+            }
+            return monthlyClosingService.runMonthlyClosing(referenceMonth);
+        });
+    }
+}
@@ -1,8 +1,10 @@
 package br.com.ecomercial.partnership.controller;
 
 import br.com.ecomercial.partnership.dto.PartnerDetailReportResponse;
+import br.com.ecomercial.partnership.dto.PartnerMonthTotalsRebuildResponse;
 import br.com.ecomercial.partnership.dto.PartnerReportResponse;
 import br.com.ecomercial.partnership.service.CsvExportService;
+import br.com.ecomercial.partnership.service.PartnerMonthTotalsRebuildService;
 import br.com.ecomercial.partnership.service.PdfExportService;
 import br.com.ecomercial.partnership.service.ReportService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -34,6 +36,7 @@ public class ReportController {
     private final ReportService reportService;
     private final CsvExportService csvExportService;
     private final PdfExportService pdfExportService;
+    private final PartnerMonthTotalsRebuildService partnerMonthTotalsRebuildService;
 
     @GetMapping("/closings/{month}/partners")
     @Operation(summary = "Relatório consolidado por parceiros", description = "Retorna relatório consolidado de todos os parceiros para um fechamento mensal")
@@ -134,6 +137,19 @@ public class ReportController {
         }
     }
 
+    @PostMapping("/partner-month-totals/rebuild")
+    @Operation(summary = "Reconstruir totais por parceiro e mês", description = "Recria a tabela materializada partner_month_totals a partir de comissões e detalhes de fechamentos concluídos, processando os meses em paralelo")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Totais reconstruídos com sucesso"),
+            @ApiResponse(responseCode = "403", description = "Acesso negado")
+    })
+    public ResponseEntity<PartnerMonthTotalsRebuildResponse> rebuildPartnerMonthTotals() {
+
+        validateAdminAccess();
+
+        return ResponseEntity.ok(partnerMonthTotalsRebuildService.rebuildAll());
+    }
+
     private void validateAdminAccess() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth == null || !(auth.getPrincipal() instanceof br.com.ecomercial.partnership.entity.User)) {
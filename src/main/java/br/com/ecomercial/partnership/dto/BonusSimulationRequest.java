@@ -0,0 +1,73 @@
+package br.com.ecomercial.partnership.dto;
+
+import br.com.ecomercial.partnership.entity.BonusPolicy;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Simulação de políticas de bônus candidatas sobre a carteira de parceiros ativos")
+public class BonusSimulationRequest {
+
+    @NotEmpty(message = "At least one month is required")
+    @Size(max = 24, message = "At most 24 months per simulation")
+    @Schema(description = "Meses simulados no formato YYYY-MM", example = "[\"2025-09\", \"2025-10\"]", required = true)
+    private List<@Pattern(regexp = "\\d{4}-\\d{2}", message = "Month must be in format YYYY-MM") String> months;
+
+    @NotEmpty(message = "At least one scenario is required")
+    @Size(max = 500, message = "At most 500 scenarios per simulation")
+    @Valid
+    @Schema(description = "Cenários avaliados; cada cenário é um conjunto de políticas", required = true)
+    private List<Scenario> scenarios;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Conjunto de políticas candidatas avaliadas em conjunto")
+    public static class Scenario {
+
+        @NotBlank(message = "Scenario name is required")
+        @Schema(description = "Nome do cenário", example = "Proposta Q4", required = true)
+        private String name;
+
+        @NotEmpty(message = "At least one policy is required")
+        @Size(max = 100, message = "At most 100 policies per scenario")
+        @Valid
+        @Schema(description = "Políticas candidatas do cenário", required = true)
+        private List<CandidatePolicy> policies;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Política de bônus candidata")
+    public static class CandidatePolicy {
+
+        @NotNull(message = "Type is required")
+        @Schema(description = "Tipo de política de bônus", example = "CLIENT_COUNT", required = true)
+        private BonusPolicy.BonusType type;
+
+        @Schema(description = "Número mínimo de clientes para bônus (apenas para tipo CLIENT_COUNT)", example = "10")
+        private Integer thresholdClients;
+
+        @Schema(description = "Faturamento mínimo para bônus (apenas para tipo REVENUE_THRESHOLD)", example = "100000.00")
+        private BigDecimal revenueThreshold;
+
+        @NotNull(message = "Bonus amount is required")
+        @DecimalMin(value = "0.0", inclusive = false, message = "Bonus amount must be greater than 0")
+        @Schema(description = "Valor do bônus", example = "300.00", required = true)
+        private BigDecimal bonusAmount;
+    }
+}
@@ -0,0 +1,79 @@
+package br.com.ecomercial.partnership.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado da simulação de políticas de bônus")
+public class BonusSimulationResponse {
+
+    @Schema(description = "Meses simulados", example = "[\"2025-09\", \"2025-10\"]")
+    private List<String> months;
+
+    @Schema(description = "Parceiros ativos avaliados", example = "25000")
+    private Integer partners;
+
+    @Schema(description = "Tempo total da simulação em milissegundos", example = "850")
+    private Long elapsedMs;
+
+    @Schema(description = "Resultado de cada cenário, na ordem da solicitação")
+    private List<ScenarioResult> scenarios;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Custo e distribuição de pagamentos de um cenário (soma dos meses por parceiro)")
+    public static class ScenarioResult {
+
+        @Schema(description = "Nome do cenário", example = "Proposta Q4")
+        private String name;
+
+        @Schema(description = "Custo total do cenário", example = "1250000.00")
+        private BigDecimal totalCost;
+
+        @Schema(description = "Parceiros que receberiam algum bônus", example = "4200")
+        private Integer partnersPaid;
+
+        @Schema(description = "Pagamento médio entre os parceiros que receberiam bônus", example = "297.62")
+        private BigDecimal averagePayout;
+
+        @Schema(description = "Mediana dos pagamentos (todos os parceiros)", example = "0.00")
+        private BigDecimal p50Payout;
+
+        @Schema(description = "Percentil 90 dos pagamentos (todos os parceiros)", example = "300.00")
+        private BigDecimal p90Payout;
+
+        @Schema(description = "Percentil 99 dos pagamentos (todos os parceiros)", example = "800.00")
+        private BigDecimal p99Payout;
+
+        @Schema(description = "Maior pagamento individual", example = "1600.00")
+        private BigDecimal maxPayout;
+
+        @Schema(description = "Quantidade de parceiros por valor de pagamento, em ordem crescente de valor")
+        private List<PayoutBucket> distribution;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Parceiros que receberiam exatamente o mesmo valor")
+    public static class PayoutBucket {
+
+        @Schema(description = "Valor pago", example = "300.00")
+        private BigDecimal payout;
+
+        @Schema(description = "Quantidade de parceiros", example = "1200")
+        private Integer partners;
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.ecomercial.partnership.dto;
+
+import br.com.ecomercial.partnership.entity.ClosingBackfill;
+import br.com.ecomercial.partnership.entity.ClosingBackfillMonth;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Progresso de um backfill de fechamentos mensais")
+public class ClosingBackfillResponse {
+
+    @Schema(description = "ID do backfill", example = "backfill-1a2b3c4d")
+    private String backfillId;
+
+    @Schema(description = "Mês inicial", example = "2025-01")
+    private String fromMonth;
+
+    @Schema(description = "Mês final", example = "2025-06")
+    private String toMonth;
+
+    @Schema(description = "Status do backfill", example = "PROCESSING")
+    private ClosingBackfill.Status status;
+
+    @Schema(description = "Mensagem de status", example = "Backfill em processamento")
+    private String message;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    @Schema(description = "Data e hora de início", example = "2025-10-01T10:00:00")
+    private LocalDateTime startedAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    @Schema(description = "Data e hora de conclusão", example = "2025-10-01T10:20:00")
+    private LocalDateTime completedAt;
+
+    @Schema(description = "Progresso por mês")
+    private List<MonthProgress> months;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Progresso do refechamento de um mês")
+    public static class MonthProgress {
+
+        @Schema(description = "Mês de referência", example = "2025-03")
+        private String referenceMonth;
+
+        @Schema(description = "Status do mês", example = "PROCESSING")
+        private ClosingBackfillMonth.Status status;
+
+        @Schema(description = "ID do fechamento mensal", example = "12")
+        private Long monthlyClosingId;
+
+        @Schema(description = "Detalhes de clientes gravados", example = "250000")
+        private Long processedClients;
+
+        @Schema(description = "Partições concluídas", example = "5")
+        private Integer processedPartitions;
+
+        @Schema(description = "Total de partições", example = "8")
+        private Integer totalPartitions;
+
+        @Schema(description = "Mensagem de status", example = "Fechamento concluído com sucesso")
+        private String message;
+    }
+}
@@ -0,0 +1,29 @@
+package br.com.ecomercial.partnership.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Página de detalhes de um fechamento, paginada por cursor (partnerId, clientId)")
+public class ClosingDetailPageResponse {
+
+    @Schema(description = "Detalhes da página, ordenados por parceiro e cliente")
+    private List<ClosingDetailResponse> items;
+
+    @Schema(description = "Indica se há mais páginas", example = "true")
+    private boolean hasMore;
+
+    @Schema(description = "Cursor: parceiro do último item, a enviar em afterPartnerId", example = "P-1001")
+    private String nextPartnerId;
+
+    @Schema(description = "Cursor: cliente do último item, a enviar em afterClientId", example = "1500")
+    private Long nextClientId;
+}
@@ -0,0 +1,65 @@
+package br.com.ecomercial.partnership.dto;
+
+import br.com.ecomercial.partnership.entity.Client;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Diferença de um cliente entre o fechamento simulado e o persistido")
+public class ClosingDiffEntry {
+
+    @Schema(description = "Tipo da diferença", example = "CHANGED")
+    private ChangeType changeType;
+
+    @Schema(description = "ID do cliente", example = "1")
+    private Long clientId;
+
+    @Schema(description = "Nome do cliente", example = "Acme SA")
+    private String clientName;
+
+    @Schema(description = "Parceiro no fechamento simulado (ou no persistido, se removido)", example = "P-1001")
+    private String partnerId;
+
+    @Schema(description = "Parceiro no fechamento persistido", example = "P-1001")
+    private String previousPartnerId;
+
+    @Schema(description = "Tipo do cliente no fechamento simulado", example = "TYPE_1")
+    private Client.ClientType clientType;
+
+    @Schema(description = "Tipo do cliente no fechamento persistido", example = "TYPE_2")
+    private Client.ClientType previousClientType;
+
+    @Schema(description = "Comissão persistida", example = "100.00")
+    private BigDecimal previousCommission;
+
+    @Schema(description = "Comissão simulada", example = "120.00")
+    private BigDecimal newCommission;
+
+    @Schema(description = "Bônus persistido", example = "0.00")
+    private BigDecimal previousBonus;
+
+    @Schema(description = "Bônus simulado", example = "0.00")
+    private BigDecimal newBonus;
+
+    @Schema(description = "Total persistido", example = "100.00")
+    private BigDecimal previousTotal;
+
+    @Schema(description = "Total simulado", example = "120.00")
+    private BigDecimal newTotal;
+
+    @Schema(description = "Campos alterados", example = "[\"commissionValue\", \"totalValue\"]")
+    private List<String> changedFields;
+
+    public enum ChangeType {
+        ADDED, REMOVED, CHANGED
+    }
+}
@@ -0,0 +1,77 @@
+package br.com.ecomercial.partnership.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resumo da simulação de fechamento comparada ao fechamento persistido")
+public class ClosingDryRunSummary {
+
+    @Schema(description = "Mês de referência", example = "2025-10")
+    private String referenceMonth;
+
+    @Schema(description = "ID do fechamento persistido comparado (nulo se não houver)", example = "1")
+    private Long persistedClosingId;
+
+    @Schema(description = "Clientes sem alteração", example = "9800")
+    private long unchangedClients;
+
+    @Schema(description = "Clientes que entrariam no fechamento", example = "120")
+    private long addedClients;
+
+    @Schema(description = "Clientes que sairiam do fechamento", example = "30")
+    private long removedClients;
+
+    @Schema(description = "Clientes com valores alterados", example = "50")
+    private long changedClients;
+
+    @Schema(description = "Variação da comissão total", example = "1500.00")
+    private BigDecimal commissionDelta;
+
+    @Schema(description = "Variação do bônus total", example = "0.00")
+    private BigDecimal bonusDelta;
+
+    @Schema(description = "Variação do payout total", example = "1500.00")
+    private BigDecimal totalDelta;
+
+    @Schema(description = "Variações por parceiro (apenas parceiros afetados)")
+    private List<PartnerDelta> partnerDeltas;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Variação do fechamento de um parceiro")
+    public static class PartnerDelta {
+
+        @Schema(description = "ID do parceiro", example = "P-1001")
+        private String partnerId;
+
+        @Schema(description = "Clientes adicionados", example = "2")
+        private int addedClients;
+
+        @Schema(description = "Clientes removidos", example = "1")
+        private int removedClients;
+
+        @Schema(description = "Clientes alterados", example = "3")
+        private int changedClients;
+
+        @Schema(description = "Variação da comissão", example = "150.00")
+        private BigDecimal commissionDelta;
+
+        @Schema(description = "Variação do bônus", example = "0.00")
+        private BigDecimal bonusDelta;
+
+        @Schema(description = "Variação do payout", example = "150.00")
+        private BigDecimal totalDelta;
+    }
+}
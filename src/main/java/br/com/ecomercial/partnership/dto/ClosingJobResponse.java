@@ -0,0 +1,57 @@
+package br.com.ecomercial.partnership.dto;
+
+import br.com.ecomercial.partnership.entity.ClosingJob;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Progresso de um job de fechamento mensal")
+public class ClosingJobResponse {
+
+    @Schema(description = "ID do job de fechamento", example = "closing-2025-10-1a2b3c4d")
+    private String jobId;
+
+    @Schema(description = "Mês de referência", example = "2025-10")
+    private String referenceMonth;
+
+    @Schema(description = "Status do job", example = "PROCESSING")
+    private ClosingJob.Status status;
+
+    @Schema(description = "ID do fechamento mensal", example = "1")
+    private Long monthlyClosingId;
+
+    @Schema(description = "Parceiros processados", example = "1200")
+    private Integer processedPartners;
+
+    @Schema(description = "Total de parceiros com clientes ativos no mês", example = "5000")
+    private Integer totalPartners;
+
+    @Schema(description = "Detalhes de clientes gravados", example = "480000")
+    private Long processedClients;
+
+    @Schema(description = "Detalhes gravados por segundo na execução corrente", example = "8500.0")
+    private Double rowsPerSecond;
+
+    @Schema(description = "Tempo restante estimado em segundos", example = "180")
+    private Long etaSeconds;
+
+    @Schema(description = "Mensagem de status", example = "Fechamento em processamento")
+    private String message;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    @Schema(description = "Data e hora de início", example = "2025-10-01T10:00:00")
+    private LocalDateTime startedAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    @Schema(description = "Data e hora de conclusão", example = "2025-10-01T10:05:00")
+    private LocalDateTime completedAt;
+}
@@ -1,5 +1,6 @@
 package br.com.ecomercial.partnership.dto;
 
+import br.com.ecomercial.partnership.entity.MonthlyClosing;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
@@ -19,5 +20,8 @@ public class ClosingRequest {
     @Pattern(regexp = "^\\d{4}-\\d{2}$", message = "Month must be in format YYYY-MM")
     @Schema(description = "Mês de referência no formato YYYY-MM", example = "2025-10", required = true)
     private String month;
+
+    @Schema(description = "Modo de execução do fechamento (padrão SEQUENTIAL)", example = "PARALLEL")
+    private MonthlyClosing.ExecutionMode mode;
 }
 
@@ -0,0 +1,39 @@
+package br.com.ecomercial.partnership.dto;
+
+import br.com.ecomercial.partnership.entity.Commission;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Seleção de comissões para aprovação ou pagamento em lote: lista de ids ou filtro por mês")
+public class CommissionBulkTransitionRequest {
+
+    @Size(max = 10000, message = "At most 10000 commission ids per request")
+    @Schema(description = "Ids das comissões (alternativa ao filtro por mês)", example = "[101, 102, 103]")
+    private List<Long> commissionIds;
+
+    @Pattern(regexp = "^\\d{4}-\\d{2}$", message = "Month must be in format YYYY-MM")
+    @Schema(description = "Mês de referência no formato YYYY-MM", example = "2025-10")
+    private String referenceMonth;
+
+    @Schema(description = "Restringe o filtro por mês a um parceiro", example = "P001")
+    private String partnerId;
+
+    @Schema(description = "Status atual esperado; deve ser o status de origem da transição (PENDING para aprovar, APPROVED para pagar)",
+            example = "PENDING")
+    private Commission.Status status;
+
+    @Size(max = 1000, message = "Justification must have at most 1000 characters")
+    @Schema(description = "Justificativa registrada na auditoria", example = "Pagamento do ciclo de outubro")
+    private String justification;
+}
@@ -0,0 +1,28 @@
+package br.com.ecomercial.partnership.dto;
+
+import br.com.ecomercial.partnership.entity.Commission;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado de uma transição de status em lote")
+public class CommissionBulkTransitionResponse {
+
+    @Schema(description = "Status exigido para a comissão ser alterada", example = "PENDING")
+    private Commission.Status fromStatus;
+
+    @Schema(description = "Novo status", example = "APPROVED")
+    private Commission.Status toStatus;
+
+    @Schema(description = "Quantidade de ids informados (null quando selecionado por filtro)", example = "3")
+    private Integer requested;
+
+    @Schema(description = "Quantidade de comissões alteradas", example = "3")
+    private int updated;
+}
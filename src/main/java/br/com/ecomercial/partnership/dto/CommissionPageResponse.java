@@ -0,0 +1,26 @@
+package br.com.ecomercial.partnership.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Página de comissões, paginada por cursor (id)")
+public class CommissionPageResponse {
+
+    @Schema(description = "Comissões da página, ordenadas por id")
+    private List<CommissionResponse> items;
+
+    @Schema(description = "Indica se há mais páginas", example = "true")
+    private boolean hasMore;
+
+    @Schema(description = "Cursor: id do último item, a enviar em afterId", example = "1500")
+    private Long nextId;
+}
@@ -11,7 +11,6 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
-import java.util.List;
 
 @Data
 @Builder
@@ -62,7 +61,10 @@ public class MonthlyClosingResponse {
     @Schema(description = "Data de atualização", example = "2025-10-01T10:30:00")
     private LocalDateTime updatedAt;
 
-    @Schema(description = "Detalhes do fechamento")
-    private List<ClosingDetailResponse> closingDetails;
+    @Schema(description = "Clientes recalculados (fechamento incremental)", example = "120")
+    private Integer recomputedClients;
+
+    @Schema(description = "Clientes copiados do fechamento anterior (fechamento incremental)", example = "24880")
+    private Integer carriedForwardClients;
 }
 
@@ -0,0 +1,24 @@
+package br.com.ecomercial.partnership.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado da reconstrução dos totais por parceiro e mês")
+public class PartnerMonthTotalsRebuildResponse {
+
+    @Schema(description = "Meses reconstruídos", example = "24")
+    private int months;
+
+    @Schema(description = "Linhas de meses sem dados de origem removidas", example = "0")
+    private int removedRows;
+
+    @Schema(description = "Duração da reconstrução em milissegundos", example = "1840")
+    private long elapsedMs;
+}
@@ -0,0 +1,67 @@
+package br.com.ecomercial.partnership.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+@Entity
+@Table(name = "closing_backfills")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClosingBackfill {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "backfill_id", unique = true, nullable = false)
+    private String backfillId;
+
+    @Column(name = "from_month", nullable = false)
+    @Convert(converter = YearMonthConverter.class)
+    private YearMonth fromMonth;
+
+    @Column(name = "to_month", nullable = false)
+    @Convert(converter = YearMonthConverter.class)
+    private YearMonth toMonth;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Status status;
+
+    @Column(name = "requested_by")
+    private String requestedBy;
+
+    @Column(name = "justification", length = 1000)
+    private String justification;
+
+    @Column(name = "message", length = 1000)
+    private String message;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public enum Status {
+        ACCEPTED, PROCESSING, COMPLETED, FAILED
+    }
+}
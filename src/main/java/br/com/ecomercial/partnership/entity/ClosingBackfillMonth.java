@@ -0,0 +1,56 @@
+package br.com.ecomercial.partnership.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+@Entity
+@Table(name = "closing_backfill_months")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClosingBackfillMonth {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "closing_backfill_id", nullable = false)
+    private Long closingBackfillId;
+
+    @Column(name = "reference_month", nullable = false)
+    @Convert(converter = YearMonthConverter.class)
+    private YearMonth referenceMonth;
+
+    @Column(name = "monthly_closing_id")
+    private Long monthlyClosingId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Status status;
+
+    @Column(name = "processed_clients", nullable = false)
+    private Long processedClients;
+
+    @Column(name = "processed_partitions", nullable = false)
+    private Integer processedPartitions;
+
+    @Column(name = "total_partitions", nullable = false)
+    private Integer totalPartitions;
+
+    @Column(name = "message", length = 1000)
+    private String message;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public enum Status {
+        PENDING, PROCESSING, COMPLETED, FAILED
+    }
+}
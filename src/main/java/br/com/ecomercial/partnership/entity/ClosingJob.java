@@ -0,0 +1,90 @@
+package br.com.ecomercial.partnership.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+@Entity
+@Table(name = "closing_jobs")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClosingJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", unique = true, nullable = false)
+    private String jobId;
+
+    @Column(name = "reference_month", nullable = false)
+    @Convert(converter = YearMonthConverter.class)
+    private YearMonth referenceMonth;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Status status;
+
+    @Column(name = "monthly_closing_id")
+    private Long monthlyClosingId;
+
+    @Column(name = "requested_by")
+    private String requestedBy;
+
+    @Column(name = "total_partners")
+    private Integer totalPartners;
+
+    @Column(name = "processed_partners")
+    private Integer processedPartners;
+
+    @Column(name = "processed_clients")
+    private Long processedClients;
+
+    // Checkpoint: último parceiro cujos detalhes já foram gravados
+    @Column(name = "last_partner_id", length = 20)
+    private String lastPartnerId;
+
+    // Início da execução corrente (após retomada) e clientes já processados naquele momento
+    @Column(name = "resumed_at")
+    private LocalDateTime resumedAt;
+
+    @Column(name = "clients_at_resume")
+    private Long clientsAtResume;
+
+    @Column(name = "partners_at_resume")
+    private Integer partnersAtResume;
+
+    @Column(name = "message", length = 1000)
+    private String message;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public enum Status {
+        ACCEPTED, PROCESSING, COMPLETED, FAILED
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.ecomercial.partnership.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "closing_partitions")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClosingPartition {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "monthly_closing_id", nullable = false)
+    private Long monthlyClosingId;
+
+    @Column(name = "partition_index", nullable = false)
+    private Integer partitionIndex;
+
+    // Faixa de clientes (fromClientId, toClientId]
+    @Column(name = "from_client_id", nullable = false)
+    private Long fromClientId;
+
+    @Column(name = "to_client_id", nullable = false)
+    private Long toClientId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Status status;
+
+    @Column(name = "owner", length = 100)
+    private String owner;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(name = "processed_clients", nullable = false)
+    private Long processedClients;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public enum Status {
+        PENDING,    // Aguardando uma réplica
+        CLAIMED,    // Em processamento por owner até leaseExpiresAt
+        DONE        // Detalhes gravados
+    }
+}
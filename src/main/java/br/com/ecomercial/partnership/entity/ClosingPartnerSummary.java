@@ -0,0 +1,48 @@
+package br.com.ecomercial.partnership.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "closing_partner_summaries")
+public class ClosingPartnerSummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "monthly_closing_id", nullable = false)
+    private Long monthlyClosingId;
+
+    @Column(name = "partner_id", nullable = false, length = 20)
+    private String partnerId;
+
+    @Column(name = "partner_name")
+    private String partnerName;
+
+    @Column(name = "total_clients", nullable = false)
+    private Integer totalClients;
+
+    @Column(name = "total_commission", precision = 15, scale = 2, nullable = false)
+    private BigDecimal totalCommission;
+
+    @Column(name = "total_bonus", precision = 15, scale = 2, nullable = false)
+    private BigDecimal totalBonus;
+
+    @Column(name = "total_payout", precision = 15, scale = 2, nullable = false)
+    private BigDecimal totalPayout;
+
+    @Column(name = "created_at", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "DATETIME(6) DEFAULT CURRENT_TIMESTAMP(6)")
+    private LocalDateTime createdAt;
+}
@@ -58,6 +58,10 @@ public class MonthlyClosing {
     @Column(name = "reopened_by")
     private String reopenedBy;
 
+    /** Início da execução, antes da leitura dos clientes: marca d'água do fechamento incremental */
+    @Column(name = "snapshot_at")
+    private LocalDateTime snapshotAt;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -76,6 +80,13 @@ public class MonthlyClosing {
         CANCELLED       // Cancelado
     }
 
+    public enum ExecutionMode {
+        SEQUENTIAL,     // Clientes processados em sequência na thread da requisição
+        PARALLEL,       // Faixas de clientes processadas em paralelo, uma transação por partição
+        INCREMENTAL,    // Apenas clientes alterados desde o último fechamento são recalculados
+        CLUSTERED       // Partições reivindicadas por qualquer réplica via leases no banco
+    }
+
     public boolean isCompleted() {
         return status == Status.COMPLETED;
     }
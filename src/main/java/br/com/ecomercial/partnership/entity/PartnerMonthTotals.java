@@ -0,0 +1,79 @@
+package br.com.ecomercial.partnership.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Totais materializados de um parceiro em um mês. Gravados apenas pelas instruções de
+ * PartnerMonthTotalsRepository, a partir de commissions e closing_details.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "partner_month_totals")
+@IdClass(PartnerMonthTotals.Key.class)
+public class PartnerMonthTotals {
+
+    @Id
+    @Column(name = "partner_id", length = 20)
+    private String partnerId;
+
+    // Primeiro dia do mês (conversores não se aplicam a atributos de id)
+    @Id
+    @Column(name = "reference_month")
+    private LocalDate referenceMonth;
+
+    @Column(name = "commission_total", precision = 15, scale = 2, nullable = false)
+    private BigDecimal commissionTotal;
+
+    @Column(name = "bonus_total", precision = 15, scale = 2, nullable = false)
+    private BigDecimal bonusTotal;
+
+    @Column(name = "payout_total", precision = 15, scale = 2, nullable = false)
+    private BigDecimal payoutTotal;
+
+    @Column(name = "paid_total", precision = 15, scale = 2, nullable = false)
+    private BigDecimal paidTotal;
+
+    @Column(name = "client_count", nullable = false)
+    private Integer clientCount;
+
+    @Column(name = "billing_total", precision = 15, scale = 2, nullable = false)
+    private BigDecimal billingTotal;
+
+    @Column(name = "closing_commission_total", precision = 15, scale = 2, nullable = false)
+    private BigDecimal closingCommissionTotal;
+
+    @Column(name = "closing_bonus_total", precision = 15, scale = 2, nullable = false)
+    private BigDecimal closingBonusTotal;
+
+    @Column(name = "closing_payout_total", precision = 15, scale = 2, nullable = false)
+    private BigDecimal closingPayoutTotal;
+
+    @Column(name = "closing_client_count", nullable = false)
+    private Integer closingClientCount;
+
+    @Column(name = "closing_revenue_total", precision = 15, scale = 2, nullable = false)
+    private BigDecimal closingRevenueTotal;
+
+    @Column(name = "updated_at", insertable = false, updatable = false)
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String partnerId;
+        private LocalDate referenceMonth;
+    }
+}
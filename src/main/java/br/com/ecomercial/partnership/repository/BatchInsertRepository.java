@@ -0,0 +1,158 @@
+package br.com.ecomercial.partnership.repository;
+
+import br.com.ecomercial.partnership.entity.AuditLog;
+import br.com.ecomercial.partnership.entity.ClosingDetail;
+import br.com.ecomercial.partnership.entity.Commission;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Escrita em lote via JDBC para as tabelas de alto volume.
+ *
+ * As entidades usam GenerationType.IDENTITY, o que desativa o batching de INSERT do Hibernate;
+ * aqui os registros são enviados com JdbcTemplate.batchUpdate, que com
+ * rewriteBatchedStatements=true no driver MySQL vira um INSERT multi-valores por lote.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BatchInsertRepository {
+
+    private static final String INSERT_CLOSING_DETAIL =
+            "INSERT INTO closing_details (monthly_closing_id, partner_id, client_id, client_name, client_type, " +
+            "client_status, client_active_from, client_inactive_from, monthly_revenue, rule_type, commission_rate, " +
+            "commission_value, bonus_value, total_value, observations, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_CLOSING_DETAIL =
+            "UPDATE closing_details SET partner_id = ?, client_name = ?, client_type = ?, client_status = ?, " +
+            "client_active_from = ?, client_inactive_from = ?, monthly_revenue = ?, rule_type = ?, commission_rate = ?, " +
+            "commission_value = ?, bonus_value = ?, total_value = ?, observations = ? WHERE id = ?";
+
+    private static final String DELETE_CLOSING_DETAIL = "DELETE FROM closing_details WHERE id = ?";
+
+    // Conflito em uk_partner_client_month mantém a comissão existente (reexecução concorrente)
+    private static final String UPSERT_COMMISSION =
+            "INSERT INTO commissions (partner_id, client_id, reference_month, client_billing, commission_value, " +
+            "bonus_value, total_value, status, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE id = id";
+
+    private static final String INSERT_AUDIT_LOG =
+            "INSERT INTO audit_logs (entity_type, entity_id, action, user_id, user_name, old_values, new_values, " +
+            "justification, ip_address, user_agent, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${batch-insert.batch-size:500}")
+    private int batchSize;
+
+    public void insertClosingDetails(List<ClosingDetail> details) {
+        if (details.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        jdbcTemplate.batchUpdate(INSERT_CLOSING_DETAIL, details, batchSize, (ps, detail) -> {
+            ps.setLong(1, detail.getMonthlyClosing().getId());
+            ps.setString(2, detail.getPartnerId());
+            ps.setLong(3, detail.getClientId());
+            ps.setString(4, detail.getClientName());
+            ps.setString(5, detail.getClientType().name());
+            ps.setString(6, detail.getClientStatus().name());
+            ps.setObject(7, detail.getClientActiveFrom() != null ? Date.valueOf(detail.getClientActiveFrom()) : null, Types.DATE);
+            ps.setObject(8, detail.getClientInactiveFrom() != null ? Date.valueOf(detail.getClientInactiveFrom()) : null, Types.DATE);
+            ps.setBigDecimal(9, detail.getMonthlyRevenue());
+            ps.setString(10, detail.getRuleType().name());
+            ps.setBigDecimal(11, detail.getCommissionRate());
+            ps.setBigDecimal(12, detail.getCommissionValue());
+            ps.setBigDecimal(13, detail.getBonusValue());
+            ps.setBigDecimal(14, detail.getTotalValue());
+            ps.setString(15, detail.getObservations());
+            ps.setTimestamp(16, now);
+        });
+    }
+
+    /**
+     * Atualiza em lote os detalhes existentes (identificados pelo id) com os valores recalculados
+     */
+    public void updateClosingDetails(List<ClosingDetail> details) {
+        if (details.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(UPDATE_CLOSING_DETAIL, details, batchSize, (ps, detail) -> {
+            ps.setString(1, detail.getPartnerId());
+            ps.setString(2, detail.getClientName());
+            ps.setString(3, detail.getClientType().name());
+            ps.setString(4, detail.getClientStatus().name());
+            ps.setObject(5, detail.getClientActiveFrom() != null ? Date.valueOf(detail.getClientActiveFrom()) : null, Types.DATE);
+            ps.setObject(6, detail.getClientInactiveFrom() != null ? Date.valueOf(detail.getClientInactiveFrom()) : null, Types.DATE);
+            ps.setBigDecimal(7, detail.getMonthlyRevenue());
+            ps.setString(8, detail.getRuleType().name());
+            ps.setBigDecimal(9, detail.getCommissionRate());
+            ps.setBigDecimal(10, detail.getCommissionValue());
+            ps.setBigDecimal(11, detail.getBonusValue());
+            ps.setBigDecimal(12, detail.getTotalValue());
+            ps.setString(13, detail.getObservations());
+            ps.setLong(14, detail.getId());
+        });
+    }
+
+    public void deleteClosingDetails(List<Long> detailIds) {
+        if (detailIds.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(DELETE_CLOSING_DETAIL, detailIds, batchSize, (ps, detailId) -> ps.setLong(1, detailId));
+    }
+
+    public void upsertCommissions(List<Commission> commissions) {
+        if (commissions.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        jdbcTemplate.batchUpdate(UPSERT_COMMISSION, commissions, batchSize, (ps, commission) -> {
+            ps.setString(1, commission.getPartnerId());
+            ps.setObject(2, commission.getClientId(), Types.BIGINT);
+            ps.setDate(3, Date.valueOf(commission.getReferenceMonth().atDay(1)));
+            ps.setBigDecimal(4, commission.getClientBilling());
+            ps.setBigDecimal(5, commission.getCommissionValue());
+            ps.setBigDecimal(6, commission.getBonusValue());
+            ps.setBigDecimal(7, commission.getTotalValue());
+            ps.setString(8, commission.getStatus().name());
+            ps.setTimestamp(9, now);
+            ps.setTimestamp(10, now);
+        });
+    }
+
+    public void insertAuditLogs(List<AuditLog> auditLogs) {
+        if (auditLogs.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        jdbcTemplate.batchUpdate(INSERT_AUDIT_LOG, auditLogs, batchSize, (ps, auditLog) -> {
+            ps.setString(1, auditLog.getEntityType());
+            ps.setString(2, auditLog.getEntityId());
+            ps.setString(3, auditLog.getAction().name());
+            ps.setString(4, auditLog.getUserId());
+            ps.setString(5, auditLog.getUserName());
+            ps.setString(6, auditLog.getOldValues());
+            ps.setString(7, auditLog.getNewValues());
+            ps.setString(8, auditLog.getJustification());
+            ps.setString(9, auditLog.getIpAddress());
+            ps.setString(10, auditLog.getUserAgent());
+            ps.setTimestamp(11, now);
+        });
+    }
+}
@@ -1,15 +1,31 @@
 package br.com.ecomercial.partnership.repository;
 
 import br.com.ecomercial.partnership.entity.Client;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ClientRepository extends JpaRepository<Client, Long> {
     
+    /**
+     * Cliente ativo no mês iniciado em :monthStart (mesma regra usada no fechamento)
+     */
+    String ACTIVE_IN_MONTH = "((c.status = 'ACTIVE' AND (c.statusEffectiveFrom IS NULL OR c.statusEffectiveFrom >= :monthStart)) OR " +
+                             "(c.status = 'INACTIVE' AND c.statusEffectiveFrom > :monthStart))";
+    
+    /**
+     * Cliente ativo na data :date (regra usada no cálculo de bônus)
+     */
+    String ACTIVE_ON_DATE = "((c.status = 'ACTIVE' AND (c.statusEffectiveFrom IS NULL OR c.statusEffectiveFrom <= :date)) OR " +
+                            "(c.status = 'INACTIVE' AND c.statusEffectiveFrom > :date))";
+    
     Optional<Client> findByDocument(String document);
     
     boolean existsByDocument(String document);
@@ -23,5 +39,60 @@ public interface ClientRepository extends JpaRepository<Client, Long> {
     List<Client> findByStatus(Client.Status status);
     
     long countByPartnerIdAndStatus(String partnerId, Client.Status status);
+    
+    /**
+     * Página (keyset por id) de clientes ativos no mês dentro da faixa (lastId, maxId],
+     * com o filtro de atividade aplicado no banco
+     */
+    @Query("SELECT c FROM Client c WHERE c.id > :lastId AND c.id <= :maxId AND " + ACTIVE_IN_MONTH +
+           " ORDER BY c.id ASC")
+    List<Client> findActiveInMonthInIdRange(@Param("lastId") Long lastId,
+                                            @Param("maxId") Long maxId,
+                                            @Param("monthStart") LocalDate monthStart,
+                                            Pageable pageable);
+    
+    /**
+     * Página (keyset por id) de clientes ativos no mês que ainda não possuem detalhe no fechamento
+     */
+    @Query("SELECT c FROM Client c WHERE c.id > :lastId AND " + ACTIVE_IN_MONTH + " AND " +
+           "NOT EXISTS (SELECT 1 FROM ClosingDetail cd WHERE cd.monthlyClosing.id = :monthlyClosingId AND cd.clientId = c.id) " +
+           "ORDER BY c.id ASC")
+    List<Client> findActiveInMonthWithoutClosingDetail(@Param("lastId") Long lastId,
+                                                       @Param("monthStart") LocalDate monthStart,
+                                                       @Param("monthlyClosingId") Long monthlyClosingId,
+                                                       Pageable pageable);
+    
+    /**
+     * Página (keyset por id) de clientes ativos no mês dos parceiros na faixa (fromPartnerId, toPartnerId]
+     */
+    @Query("SELECT c FROM Client c WHERE c.partnerId > :fromPartnerId AND c.partnerId <= :toPartnerId AND " +
+           "c.id > :lastId AND " + ACTIVE_IN_MONTH + " ORDER BY c.id ASC")
+    List<Client> findActiveInMonthInPartnerRange(@Param("fromPartnerId") String fromPartnerId,
+                                                 @Param("toPartnerId") String toPartnerId,
+                                                 @Param("lastId") Long lastId,
+                                                 @Param("monthStart") LocalDate monthStart,
+                                                 Pageable pageable);
+    
+    /**
+     * Página (keyset por partnerId) dos parceiros com clientes ativos no mês
+     */
+    @Query("SELECT DISTINCT c.partnerId FROM Client c WHERE c.partnerId > :lastPartnerId AND " + ACTIVE_IN_MONTH +
+           " ORDER BY c.partnerId ASC")
+    List<String> findPartnerIdsWithActiveClientsAfter(@Param("lastPartnerId") String lastPartnerId,
+                                                      @Param("monthStart") LocalDate monthStart,
+                                                      Pageable pageable);
+    
+    @Query("SELECT COUNT(DISTINCT c.partnerId) FROM Client c WHERE " + ACTIVE_IN_MONTH)
+    long countPartnersWithActiveClients(@Param("monthStart") LocalDate monthStart);
+    
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM Client c")
+    Long findMaxId();
+
+    /**
+     * Quantidade e faturamento somado dos clientes ativos na data, por parceiro: [partnerId, count, billing]
+     */
+    @Query("SELECT c.partnerId, COUNT(c), COALESCE(SUM(c.monthlyBilling), 0) FROM Client c WHERE " + ACTIVE_ON_DATE +
+           " GROUP BY c.partnerId")
+    List<Object[]> summarizeActiveClientsByPartnerOnDate(@Param("date") LocalDate date);
 }
 
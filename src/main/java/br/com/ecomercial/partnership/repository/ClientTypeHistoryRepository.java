@@ -34,5 +34,28 @@ public interface ClientTypeHistoryRepository extends JpaRepository<ClientTypeHis
            "cth.effectiveFrom > :date " +
            "ORDER BY cth.effectiveFrom ASC")
     List<ClientTypeHistory> findFutureTypesForClient(@Param("clientId") Long clientId, @Param("date") LocalDate date);
+    
+    /**
+     * Intervalos de tipo que se sobrepõem ao período, para clientes na faixa [fromClientId, toClientId],
+     * como (clientId, clientType, effectiveFrom, effectiveTo) ordenados por cliente e vigência
+     */
+    @Query("SELECT cth.clientId, cth.clientType, cth.effectiveFrom, cth.effectiveTo FROM ClientTypeHistory cth " +
+           "WHERE cth.clientId >= :fromClientId AND cth.clientId <= :toClientId AND " +
+           "cth.effectiveFrom <= :endDate AND (cth.effectiveTo IS NULL OR cth.effectiveTo >= :startDate) " +
+           "ORDER BY cth.clientId ASC, cth.effectiveFrom ASC")
+    List<Object[]> findIntervalsOverlappingPeriod(@Param("fromClientId") Long fromClientId,
+                                                  @Param("toClientId") Long toClientId,
+                                                  @Param("startDate") LocalDate startDate,
+                                                  @Param("endDate") LocalDate endDate);
+    
+    /**
+     * Intervalos de tipo que se sobrepõem ao período para os clientes de um parceiro
+     */
+    @Query("SELECT cth.clientId, cth.clientType, cth.effectiveFrom, cth.effectiveTo FROM ClientTypeHistory cth " +
+           "WHERE cth.clientId IN (SELECT c.id FROM Client c WHERE c.partnerId = :partnerId) AND " +
+           "cth.effectiveFrom <= :endDate AND (cth.effectiveTo IS NULL OR cth.effectiveTo >= :startDate) " +
+           "ORDER BY cth.clientId ASC, cth.effectiveFrom ASC")
+    List<Object[]> findIntervalsOverlappingPeriodForPartner(@Param("partnerId") String partnerId,
+                                                            @Param("startDate") LocalDate startDate,
+                                                            @Param("endDate") LocalDate endDate);
 }
-
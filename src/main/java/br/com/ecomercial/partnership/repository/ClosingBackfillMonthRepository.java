@@ -0,0 +1,26 @@
+package br.com.ecomercial.partnership.repository;
+
+import br.com.ecomercial.partnership.entity.ClosingBackfillMonth;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface ClosingBackfillMonthRepository extends JpaRepository<ClosingBackfillMonth, Long> {
+
+    List<ClosingBackfillMonth> findByClosingBackfillIdOrderByReferenceMonthAsc(Long closingBackfillId);
+
+    /**
+     * Soma o progresso de uma partição concluída (incremento atômico, partições concorrentes)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ClosingBackfillMonth m SET m.processedClients = m.processedClients + :clients, " +
+           "m.processedPartitions = m.processedPartitions + 1 WHERE m.id = :id")
+    int addPartitionProgress(@Param("id") Long id, @Param("clients") long clients);
+}
@@ -0,0 +1,19 @@
+package br.com.ecomercial.partnership.repository;
+
+import br.com.ecomercial.partnership.entity.ClosingBackfill;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ClosingBackfillRepository extends JpaRepository<ClosingBackfill, Long> {
+
+    Optional<ClosingBackfill> findByBackfillId(String backfillId);
+
+    List<ClosingBackfill> findByStatusIn(Collection<ClosingBackfill.Status> statuses);
+
+    boolean existsByStatusIn(Collection<ClosingBackfill.Status> statuses);
+}
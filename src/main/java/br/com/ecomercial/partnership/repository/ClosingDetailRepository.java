@@ -2,12 +2,17 @@ package br.com.ecomercial.partnership.repository;
 
 import br.com.ecomercial.partnership.entity.ClosingDetail;
 import br.com.ecomercial.partnership.entity.MonthlyClosing;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.util.List;
 
@@ -16,6 +21,30 @@ public interface ClosingDetailRepository extends JpaRepository<ClosingDetail, Lo
 
     List<ClosingDetail> findByMonthlyClosing(MonthlyClosing monthlyClosing);
 
+    /**
+     * Página (keyset por clientId, id) dos detalhes de um fechamento após (afterClientId, afterId) e
+     * até toClientId; o id desempata linhas duplicadas do mesmo cliente entre páginas
+     */
+    @Query("SELECT cd FROM ClosingDetail cd WHERE cd.monthlyClosing.id = :monthlyClosingId AND " +
+           "(cd.clientId > :afterClientId OR (cd.clientId = :afterClientId AND cd.id > :afterId)) AND " +
+           "cd.clientId <= :toClientId ORDER BY cd.clientId ASC, cd.id ASC")
+    List<ClosingDetail> findPageInClientIdRange(@Param("monthlyClosingId") Long monthlyClosingId,
+                                                @Param("afterClientId") Long afterClientId,
+                                                @Param("afterId") Long afterId,
+                                                @Param("toClientId") Long toClientId,
+                                                Pageable pageable);
+
+    /**
+     * Página (keyset por partnerId, clientId) dos detalhes de um fechamento
+     */
+    @Query("SELECT cd FROM ClosingDetail cd WHERE cd.monthlyClosing.id = :monthlyClosingId AND " +
+           "(cd.partnerId > :afterPartnerId OR (cd.partnerId = :afterPartnerId AND cd.clientId > :afterClientId)) " +
+           "ORDER BY cd.partnerId ASC, cd.clientId ASC")
+    List<ClosingDetail> findPageAfter(@Param("monthlyClosingId") Long monthlyClosingId,
+                                      @Param("afterPartnerId") String afterPartnerId,
+                                      @Param("afterClientId") Long afterClientId,
+                                      Pageable pageable);
+
     List<ClosingDetail> findByPartnerId(String partnerId);
 
     List<ClosingDetail> findByPartnerIdAndMonthlyClosing(String partnerId, MonthlyClosing monthlyClosing);
@@ -49,5 +78,42 @@ public interface ClosingDetailRepository extends JpaRepository<ClosingDetail, Lo
     @Query("SELECT COUNT(cd) FROM ClosingDetail cd WHERE cd.partnerId = :partnerId AND cd.monthlyClosing = :monthlyClosing")
     Long countByPartnerIdAndMonthlyClosing(@Param("partnerId") String partnerId, 
                                           @Param("monthlyClosing") MonthlyClosing monthlyClosing);
-}
 
+    @Query("SELECT COUNT(cd), COALESCE(SUM(cd.commissionValue), 0), COALESCE(SUM(cd.bonusValue), 0), " +
+           "COALESCE(SUM(cd.totalValue), 0), COUNT(DISTINCT cd.partnerId) " +
+           "FROM ClosingDetail cd WHERE cd.monthlyClosing.id = :monthlyClosingId")
+    List<Object[]> getTotalsByMonthlyClosingId(@Param("monthlyClosingId") Long monthlyClosingId);
+
+    /**
+     * Copia para o novo fechamento os detalhes do fechamento anterior cujo resultado não pode ter
+     * mudado: cliente ACTIVE sem data de mudança de status, sem alteração desde o fechamento
+     * anterior, sem mudança de tipo no período e com regra de comissão inalterada
+     */
+    @Modifying
+    @Query(value = "INSERT INTO closing_details (monthly_closing_id, partner_id, client_id, client_name, client_type, " +
+           "client_status, client_active_from, client_inactive_from, monthly_revenue, rule_type, commission_rate, " +
+           "commission_value, bonus_value, total_value, observations, created_at) " +
+           "SELECT :monthlyClosingId, cd.partner_id, cd.client_id, cd.client_name, cd.client_type, cd.client_status, " +
+           "cd.client_active_from, cd.client_inactive_from, cd.monthly_revenue, cd.rule_type, cd.commission_rate, " +
+           "cd.commission_value, cd.bonus_value, cd.total_value, cd.observations, CURRENT_TIMESTAMP " +
+           "FROM closing_details cd JOIN clients c ON c.id = cd.client_id " +
+           "WHERE cd.monthly_closing_id = :previousClosingId " +
+           "AND c.status = 'ACTIVE' AND c.status_effective_from IS NULL " +
+           "AND c.updated_at <= :since AND c.client_type = cd.client_type " +
+           "AND cd.client_type NOT IN (:dirtyClientTypes) " +
+           "AND NOT EXISTS (SELECT 1 FROM client_type_history h WHERE h.client_id = c.id AND " +
+           "(h.updated_at > :since OR h.effective_from > :previousMonthStart OR " +
+           "(h.effective_to >= :previousMonthStart AND h.effective_to < :monthStart)))",
+           nativeQuery = true)
+    int carryForwardUnchangedDetails(@Param("monthlyClosingId") Long monthlyClosingId,
+                                     @Param("previousClosingId") Long previousClosingId,
+                                     @Param("since") LocalDateTime since,
+                                     @Param("previousMonthStart") LocalDate previousMonthStart,
+                                     @Param("monthStart") LocalDate monthStart,
+                                     @Param("dirtyClientTypes") List<String> dirtyClientTypes);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ClosingDetail cd WHERE cd.monthlyClosing.id = :monthlyClosingId")
+    int deleteByMonthlyClosingId(@Param("monthlyClosingId") Long monthlyClosingId);
+}
@@ -0,0 +1,20 @@
+package br.com.ecomercial.partnership.repository;
+
+import br.com.ecomercial.partnership.entity.ClosingJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ClosingJobRepository extends JpaRepository<ClosingJob, Long> {
+
+    Optional<ClosingJob> findByJobId(String jobId);
+
+    List<ClosingJob> findByStatusIn(Collection<ClosingJob.Status> statuses);
+
+    boolean existsByReferenceMonthAndStatusIn(YearMonth referenceMonth, Collection<ClosingJob.Status> statuses);
+}
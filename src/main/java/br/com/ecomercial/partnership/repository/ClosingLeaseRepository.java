@@ -0,0 +1,43 @@
+package br.com.ecomercial.partnership.repository;
+
+import br.com.ecomercial.partnership.entity.ClosingLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface ClosingLeaseRepository extends JpaRepository<ClosingLease, String> {
+
+    /**
+     * Cria o lease se ainda não existir; 1 linha afetada significa que o owner o obteve
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO closing_leases (lease_key, owner, acquired_at, expires_at) " +
+           "VALUES (:leaseKey, :owner, :now, :expiresAt)", nativeQuery = true)
+    int insertIfAbsent(@Param("leaseKey") String leaseKey, @Param("owner") String owner,
+                       @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Assume o lease apenas se estiver expirado (condição avaliada atomicamente no banco). Um lease
+     * vigente não é reentrante, nem para o próprio owner: uma segunda execução no mesmo nó falha
+     */
+    @Modifying
+    @Query("UPDATE ClosingLease l SET l.owner = :owner, l.acquiredAt = :now, l.expiresAt = :expiresAt " +
+           "WHERE l.leaseKey = :leaseKey AND l.expiresAt < :now")
+    int takeOver(@Param("leaseKey") String leaseKey, @Param("owner") String owner,
+                 @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE ClosingLease l SET l.expiresAt = :expiresAt WHERE l.leaseKey IN :leaseKeys AND l.owner = :owner")
+    int renew(@Param("leaseKeys") Collection<String> leaseKeys, @Param("owner") String owner,
+              @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("DELETE FROM ClosingLease l WHERE l.leaseKey = :leaseKey AND l.owner = :owner")
+    int release(@Param("leaseKey") String leaseKey, @Param("owner") String owner);
+}
@@ -0,0 +1,59 @@
+package br.com.ecomercial.partnership.repository;
+
+import br.com.ecomercial.partnership.entity.ClosingPartition;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ClosingPartitionRepository extends JpaRepository<ClosingPartition, Long> {
+
+    String CLAIMABLE = "(p.status = br.com.ecomercial.partnership.entity.ClosingPartition.Status.PENDING OR " +
+                       "(p.status = br.com.ecomercial.partnership.entity.ClosingPartition.Status.CLAIMED AND p.leaseExpiresAt < :now))";
+
+    /**
+     * Partições pendentes ou com lease expirado (réplica que parou no meio da partição)
+     */
+    @Query("SELECT p.id FROM ClosingPartition p WHERE " + CLAIMABLE + " ORDER BY p.id ASC")
+    List<Long> findClaimableIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Reivindica a partição para o owner; 0 linhas afetadas significa que outra réplica a obteve antes
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ClosingPartition p SET p.status = br.com.ecomercial.partnership.entity.ClosingPartition.Status.CLAIMED, " +
+           "p.owner = :owner, p.leaseExpiresAt = :expiresAt WHERE p.id = :id AND " + CLAIMABLE)
+    int claim(@Param("id") Long id, @Param("owner") String owner,
+              @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Conclui a partição apenas se ainda pertence ao owner (não foi reivindicada por outra réplica)
+     */
+    @Modifying
+    @Query("UPDATE ClosingPartition p SET p.status = br.com.ecomercial.partnership.entity.ClosingPartition.Status.DONE, " +
+           "p.processedClients = :processedClients, p.completedAt = :now WHERE p.id = :id AND p.owner = :owner AND " +
+           "p.status = br.com.ecomercial.partnership.entity.ClosingPartition.Status.CLAIMED")
+    int markDone(@Param("id") Long id, @Param("owner") String owner,
+                 @Param("processedClients") long processedClients, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ClosingPartition p SET p.leaseExpiresAt = :expiresAt WHERE p.owner = :owner AND " +
+           "p.status = br.com.ecomercial.partnership.entity.ClosingPartition.Status.CLAIMED")
+    int renewClaims(@Param("owner") String owner, @Param("expiresAt") LocalDateTime expiresAt);
+
+    long countByMonthlyClosingIdAndStatusNot(Long monthlyClosingId, ClosingPartition.Status status);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ClosingPartition p WHERE p.monthlyClosingId = :monthlyClosingId")
+    int deleteByMonthlyClosingId(@Param("monthlyClosingId") Long monthlyClosingId);
+}
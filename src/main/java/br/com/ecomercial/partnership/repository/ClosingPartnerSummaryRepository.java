@@ -0,0 +1,40 @@
+package br.com.ecomercial.partnership.repository;
+
+import br.com.ecomercial.partnership.entity.ClosingPartnerSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ClosingPartnerSummaryRepository extends JpaRepository<ClosingPartnerSummary, Long> {
+
+    List<ClosingPartnerSummary> findByMonthlyClosingIdOrderByPartnerIdAsc(Long monthlyClosingId);
+
+    Optional<ClosingPartnerSummary> findByMonthlyClosingIdAndPartnerId(Long monthlyClosingId, String partnerId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ClosingPartnerSummary s WHERE s.monthlyClosingId = :monthlyClosingId")
+    int deleteByMonthlyClosingId(@Param("monthlyClosingId") Long monthlyClosingId);
+
+    /**
+     * Agrega os detalhes gravados do fechamento em um resumo por parceiro, em uma única instrução.
+     * created_at é informado explicitamente, sem depender do DEFAULT da migração
+     */
+    @Modifying
+    @Query(value = "INSERT INTO closing_partner_summaries (monthly_closing_id, partner_id, partner_name, total_clients, " +
+           "total_commission, total_bonus, total_payout, created_at) " +
+           "SELECT cd.monthly_closing_id, cd.partner_id, p.name, COUNT(*), COALESCE(SUM(cd.commission_value), 0), " +
+           "COALESCE(SUM(cd.bonus_value), 0), COALESCE(SUM(cd.total_value), 0), CURRENT_TIMESTAMP(6) " +
+           "FROM closing_details cd LEFT JOIN partners p ON p.partner_id = cd.partner_id " +
+           "WHERE cd.monthly_closing_id = :monthlyClosingId " +
+           "GROUP BY cd.monthly_closing_id, cd.partner_id, p.name",
+           nativeQuery = true)
+    int insertFromClosingDetails(@Param("monthlyClosingId") Long monthlyClosingId);
+}
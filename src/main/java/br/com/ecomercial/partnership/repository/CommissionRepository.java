@@ -1,12 +1,20 @@
 package br.com.ecomercial.partnership.repository;
 
 import br.com.ecomercial.partnership.entity.Commission;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CommissionRepository extends JpaRepository<Commission, Long> {
@@ -22,5 +30,57 @@ public interface CommissionRepository extends JpaRepository<Commission, Long> {
     Optional<Commission> findByPartnerIdAndClientIdAndReferenceMonth(String partnerId, Long clientId, YearMonth referenceMonth);
     
     List<Commission> findByReferenceMonth(YearMonth referenceMonth);
+
+    @Query("SELECT c FROM Commission c WHERE c.id > :afterId " +
+           "AND (:partnerId IS NULL OR c.partnerId = :partnerId) " +
+           "AND (:status IS NULL OR c.status = :status) " +
+           "AND (:referenceMonth IS NULL OR c.referenceMonth = :referenceMonth) " +
+           "ORDER BY c.id ASC")
+    List<Commission> findPageAfter(@Param("afterId") Long afterId,
+                                   @Param("partnerId") String partnerId,
+                                   @Param("status") Commission.Status status,
+                                   @Param("referenceMonth") YearMonth referenceMonth,
+                                   Pageable pageable);
+
+    // fetchSize Integer.MIN_VALUE ativa o modo streaming do driver MySQL: as linhas chegam uma a uma
+    // em vez de o resultado inteiro ser carregado antes da primeira
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT c FROM Commission c WHERE (:partnerId IS NULL OR c.partnerId = :partnerId) " +
+           "AND (:status IS NULL OR c.status = :status) " +
+           "AND (:referenceMonth IS NULL OR c.referenceMonth = :referenceMonth) " +
+           "ORDER BY c.id ASC")
+    Stream<Commission> streamFiltered(@Param("partnerId") String partnerId,
+                                      @Param("status") Commission.Status status,
+                                      @Param("referenceMonth") YearMonth referenceMonth);
+
+    @Query("SELECT c.partnerId, c.clientId FROM Commission c WHERE c.referenceMonth = :referenceMonth")
+    List<Object[]> findPartnerClientKeysByReferenceMonth(@Param("referenceMonth") YearMonth referenceMonth);
+
+    // Bloqueia as comissões que a transição em lote vai alterar, para auditar exatamente esses ids
+    @Query(value = "SELECT id FROM commissions WHERE status = :status AND reference_month = :referenceMonth " +
+                   "AND (:partnerId IS NULL OR partner_id = :partnerId) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockIdsByStatusAndFilter(@Param("status") String status,
+                                        @Param("referenceMonth") LocalDate referenceMonth,
+                                        @Param("partnerId") String partnerId);
+
+    @Query(value = "SELECT id FROM commissions WHERE id IN (:ids) AND status = :status ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockIdsByStatusAndIdIn(@Param("status") String status, @Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Commission c SET c.status = :toStatus WHERE c.status = :fromStatus AND c.referenceMonth = :referenceMonth " +
+           "AND (:partnerId IS NULL OR c.partnerId = :partnerId)")
+    int updateStatusByFilter(@Param("fromStatus") Commission.Status fromStatus,
+                             @Param("toStatus") Commission.Status toStatus,
+                             @Param("referenceMonth") YearMonth referenceMonth,
+                             @Param("partnerId") String partnerId);
+
+    @Modifying
+    @Query("UPDATE Commission c SET c.status = :toStatus WHERE c.id IN :ids AND c.status = :fromStatus")
+    int updateStatusByIdIn(@Param("fromStatus") Commission.Status fromStatus,
+                           @Param("toStatus") Commission.Status toStatus,
+                           @Param("ids") List<Long> ids);
 }
 
@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +21,9 @@ public interface CommissionRuleRepository extends JpaRepository<CommissionRule,
     
     List<CommissionRule> findByStatus(CommissionRule.Status status);
     
+    @Query("SELECT DISTINCT cr.clientType FROM CommissionRule cr WHERE cr.updatedAt > :since")
+    List<Client.ClientType> findClientTypesWithRulesChangedSince(@Param("since") LocalDateTime since);
+    
     Optional<CommissionRule> findByClientTypeAndStatus(Client.ClientType clientType, CommissionRule.Status status);
     
     @Query("SELECT cr FROM CommissionRule cr WHERE cr.clientType = :clientType AND " +
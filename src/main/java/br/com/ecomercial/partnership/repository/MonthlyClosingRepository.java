@@ -17,6 +17,9 @@ public interface MonthlyClosingRepository extends JpaRepository<MonthlyClosing,
 
     boolean existsByReferenceMonth(YearMonth referenceMonth);
 
+    Optional<MonthlyClosing> findFirstByStatusAndReferenceMonthLessThanOrderByReferenceMonthDesc(MonthlyClosing.Status status,
+                                                                                              YearMonth referenceMonth);
+
     List<MonthlyClosing> findByStatus(MonthlyClosing.Status status);
 
     List<MonthlyClosing> findByStatusOrderByReferenceMonthDesc(MonthlyClosing.Status status);
@@ -0,0 +1,93 @@
+package br.com.ecomercial.partnership.repository;
+
+import br.com.ecomercial.partnership.entity.PartnerMonthTotals;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PartnerMonthTotalsRepository extends JpaRepository<PartnerMonthTotals, PartnerMonthTotals.Key> {
+
+    List<PartnerMonthTotals> findByReferenceMonth(LocalDate referenceMonth);
+
+    @Modifying
+    @Query("DELETE FROM PartnerMonthTotals t WHERE t.referenceMonth = :referenceMonth")
+    int deleteByReferenceMonth(@Param("referenceMonth") LocalDate referenceMonth);
+
+    @Modifying
+    @Query("DELETE FROM PartnerMonthTotals t WHERE t.referenceMonth NOT IN :referenceMonths")
+    int deleteByReferenceMonthNotIn(@Param("referenceMonths") Collection<LocalDate> referenceMonths);
+
+    @Modifying
+    @Query(value = "UPDATE partner_month_totals SET commission_total = 0, bonus_total = 0, payout_total = 0, " +
+           "paid_total = 0, client_count = 0, billing_total = 0 " +
+           "WHERE reference_month = :referenceMonth AND (:partnerId IS NULL OR partner_id = :partnerId)",
+           nativeQuery = true)
+    int resetCommissionTotals(@Param("referenceMonth") LocalDate referenceMonth, @Param("partnerId") String partnerId);
+
+    /**
+     * Recalcula as colunas de comissão do mês (opcionalmente de um parceiro) a partir de commissions.
+     * Linhas novas recebem 0 nas colunas de fechamento: o schema gerado pelas entidades não tem DEFAULT
+     */
+    @Modifying
+    @Query(value = "INSERT INTO partner_month_totals (partner_id, reference_month, commission_total, bonus_total, " +
+           "payout_total, paid_total, client_count, billing_total, closing_commission_total, closing_bonus_total, " +
+           "closing_payout_total, closing_client_count, closing_revenue_total) " +
+           "SELECT * FROM (SELECT c.partner_id, c.reference_month, " +
+           "COALESCE(SUM(c.commission_value), 0) AS commission_total, COALESCE(SUM(c.bonus_value), 0) AS bonus_total, " +
+           "COALESCE(SUM(c.total_value), 0) AS payout_total, " +
+           "COALESCE(SUM(CASE WHEN c.status = 'PAID' THEN c.total_value ELSE 0 END), 0) AS paid_total, " +
+           "COUNT(DISTINCT c.client_id) AS client_count, COALESCE(SUM(c.client_billing), 0) AS billing_total, " +
+           "0 AS closing_commission_total, 0 AS closing_bonus_total, 0 AS closing_payout_total, " +
+           "0 AS closing_client_count, 0 AS closing_revenue_total " +
+           "FROM commissions c WHERE c.reference_month = :referenceMonth AND c.status <> 'CANCELLED' " +
+           "AND (:partnerId IS NULL OR c.partner_id = :partnerId) " +
+           "GROUP BY c.partner_id, c.reference_month) s " +
+           "ON DUPLICATE KEY UPDATE commission_total = s.commission_total, bonus_total = s.bonus_total, " +
+           "payout_total = s.payout_total, paid_total = s.paid_total, client_count = s.client_count, " +
+           "billing_total = s.billing_total",
+           nativeQuery = true)
+    int upsertCommissionTotals(@Param("referenceMonth") LocalDate referenceMonth, @Param("partnerId") String partnerId);
+
+    @Modifying
+    @Query(value = "UPDATE partner_month_totals SET closing_commission_total = 0, closing_bonus_total = 0, " +
+           "closing_payout_total = 0, closing_client_count = 0, closing_revenue_total = 0 " +
+           "WHERE reference_month = :referenceMonth",
+           nativeQuery = true)
+    int resetClosingTotals(@Param("referenceMonth") LocalDate referenceMonth);
+
+    /**
+     * Recalcula as colunas de fechamento do mês a partir dos detalhes do fechamento informado.
+     * Linhas novas recebem 0 nas colunas de comissão: o schema gerado pelas entidades não tem DEFAULT
+     */
+    @Modifying
+    @Query(value = "INSERT INTO partner_month_totals (partner_id, reference_month, commission_total, bonus_total, " +
+           "payout_total, paid_total, client_count, billing_total, closing_commission_total, " +
+           "closing_bonus_total, closing_payout_total, closing_client_count, closing_revenue_total) " +
+           "SELECT * FROM (SELECT cd.partner_id, :referenceMonth AS reference_month, " +
+           "0 AS commission_total, 0 AS bonus_total, 0 AS payout_total, 0 AS paid_total, " +
+           "0 AS client_count, 0 AS billing_total, " +
+           "COALESCE(SUM(cd.commission_value), 0) AS closing_commission_total, " +
+           "COALESCE(SUM(cd.bonus_value), 0) AS closing_bonus_total, " +
+           "COALESCE(SUM(cd.total_value), 0) AS closing_payout_total, COUNT(*) AS closing_client_count, " +
+           "COALESCE(SUM(cd.monthly_revenue), 0) AS closing_revenue_total " +
+           "FROM closing_details cd WHERE cd.monthly_closing_id = :monthlyClosingId GROUP BY cd.partner_id) s " +
+           "ON DUPLICATE KEY UPDATE closing_commission_total = s.closing_commission_total, " +
+           "closing_bonus_total = s.closing_bonus_total, closing_payout_total = s.closing_payout_total, " +
+           "closing_client_count = s.closing_client_count, closing_revenue_total = s.closing_revenue_total",
+           nativeQuery = true)
+    int upsertClosingTotals(@Param("monthlyClosingId") Long monthlyClosingId, @Param("referenceMonth") LocalDate referenceMonth);
+
+    @Query("SELECT DISTINCT c.referenceMonth FROM Commission c WHERE c.id IN :commissionIds")
+    List<YearMonth> findCommissionMonths(@Param("commissionIds") Collection<Long> commissionIds);
+
+    @Query("SELECT DISTINCT c.referenceMonth FROM Commission c")
+    List<YearMonth> findAllCommissionMonths();
+}
@@ -3,6 +3,7 @@ package br.com.ecomercial.partnership.service;
 import br.com.ecomercial.partnership.entity.AuditLog;
 import br.com.ecomercial.partnership.entity.User;
 import br.com.ecomercial.partnership.repository.AuditLogRepository;
+import br.com.ecomercial.partnership.repository.BatchInsertRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
@@ -16,6 +17,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.servlet.http.HttpServletRequest;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -23,7 +25,10 @@ import java.util.List;
 @Slf4j
 public class AuditService {
 
+    private static final int BULK_AUDIT_CHUNK_SIZE = 1000;
+
     private final AuditLogRepository auditLogRepository;
+    private final BatchInsertRepository batchInsertRepository;
     private final ObjectMapper objectMapper;
     private final MetricsService metricsService;
 
@@ -70,6 +75,52 @@ public class AuditService {
         }
     }
 
+    /**
+     * Registra a mesma alteração para várias entidades, gravando os logs em lotes JDBC.
+     * Executa na transação do chamador: os logs só persistem junto com a alteração auditada.
+     */
+    @Transactional
+    public void logBulkUpdate(String entityType, List<String> entityIds, Object oldValue, Object newValue,
+                              String justification, HttpServletRequest request) {
+        if (entityIds.isEmpty()) {
+            return;
+        }
+        User currentUser = getCurrentUser();
+        if (currentUser == null) {
+            log.warn("No authenticated user found for audit log");
+            return;
+        }
+
+        String oldValuesJson = serializeObject(oldValue);
+        String newValuesJson = serializeObject(newValue);
+        String ipAddress = getClientIpAddress(request);
+        String userAgent = getUserAgent(request);
+
+        List<AuditLog> chunk = new ArrayList<>(Math.min(entityIds.size(), BULK_AUDIT_CHUNK_SIZE));
+        for (String entityId : entityIds) {
+            chunk.add(AuditLog.builder()
+                    .entityType(entityType)
+                    .entityId(entityId)
+                    .action(AuditLog.Action.UPDATE)
+                    .userId(currentUser.getId().toString())
+                    .userName(currentUser.getUsername())
+                    .oldValues(oldValuesJson)
+                    .newValues(newValuesJson)
+                    .justification(justification)
+                    .ipAddress(ipAddress)
+                    .userAgent(userAgent)
+                    .build());
+            if (chunk.size() == BULK_AUDIT_CHUNK_SIZE) {
+                batchInsertRepository.insertAuditLogs(chunk);
+                chunk.clear();
+            }
+        }
+        batchInsertRepository.insertAuditLogs(chunk);
+
+        log.info("Audit logs created: {} {} x{} by {}", AuditLog.Action.UPDATE, entityType, entityIds.size(), currentUser.getUsername());
+        metricsService.incrementAuditLogs(AuditLog.Action.UPDATE.name(), entityIds.size());
+    }
+
     /**
      * Registra criação de entidade
      */
@@ -8,6 +8,8 @@ import br.com.ecomercial.partnership.repository.ClientRepository;
 import br.com.ecomercial.partnership.repository.CommissionRepository;
 import br.com.ecomercial.partnership.repository.PartnerRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,19 +17,41 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class BonusCalculationService {
 
     private final BonusPolicyService bonusPolicyService;
+    private final BonusPolicyIndex bonusPolicyIndex;
     private final ClientRepository clientRepository;
     private final CommissionRepository commissionRepository;
     private final PartnerRepository partnerRepository;
+    private final Executor bonusTaskExecutor;
+    private final BonusResultCache bonusResultCache;
 
+    @Value("${bonus.batch.parallel:true}")
+    private boolean parallelBatch;
+
+    @Value("${bonus.batch.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * Bônus do parceiro no mês, servido pelo {@link BonusResultCache} quando disponível
+     */
     public BonusCalculationResponse calculateBonusForPartner(String partnerId, YearMonth referenceMonth) {
+        return bonusResultCache.get(partnerId, referenceMonth, () -> computeBonusForPartner(partnerId, referenceMonth));
+    }
+
+    private BonusCalculationResponse computeBonusForPartner(String partnerId, YearMonth referenceMonth) {
         // Converter YearMonth para LocalDate (primeiro dia do mês)
         LocalDate calculationDate = referenceMonth.atDay(1);
         
@@ -62,6 +86,16 @@ public class BonusCalculationService {
         return calculation.getTotalBonus();
     }
 
+    /**
+     * Total de bônus para entradas já agregadas pelo chamador (clientes ativos e faturamento no
+     * primeiro dia do mês, pela regra de isClientActiveOnDate), sem consultar clientes
+     */
+    public BigDecimal calculateTotalBonus(YearMonth referenceMonth, int activeClientsCount, BigDecimal totalRevenue) {
+        return calculateApplicableBonuses(referenceMonth.atDay(1), activeClientsCount, totalRevenue).stream()
+            .map(BonusCalculationResponse.BonusDetail::getBonusAmount)
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
     private List<Client> getActiveClientsForPeriod(String partnerId, LocalDate calculationDate) {
         // Buscar todos os clientes do parceiro
         List<Client> partnerClients = clientRepository.findByPartnerId(partnerId);
@@ -78,7 +112,10 @@ public class BonusCalculationService {
         return activeClients;
     }
 
-    private boolean isClientActiveOnDate(Client client, LocalDate date) {
+    /**
+     * Regra de atividade usada nas entradas do bônus por desempenho (equivalente a ClientRepository.ACTIVE_ON_DATE)
+     */
+    static boolean isClientActiveOnDate(Client client, LocalDate date) {
         // Cliente está ativo se:
         // 1. Status é ACTIVE E não há data de inativação definida
         // 2. Status é ACTIVE E a data de inativação é posterior à data de cálculo
@@ -104,11 +141,19 @@ public class BonusCalculationService {
     private List<BonusCalculationResponse.BonusDetail> calculateApplicableBonuses(
             LocalDate calculationDate, Integer clientCount, BigDecimal totalRevenue) {
         
-        List<BonusCalculationResponse.BonusDetail> bonusDetails = new ArrayList<>();
-        
-        // Calcular bônus por número de clientes
+        // Calcular bônus por número de clientes e por faturamento
         List<BonusPolicy> clientCountPolicies = bonusPolicyService
             .getEligibleClientCountPolicies(calculationDate, clientCount);
+        List<BonusPolicy> revenuePolicies = bonusPolicyService
+            .getEligibleRevenuePolicies(calculationDate, totalRevenue);
+
+        return buildBonusDetails(clientCountPolicies, revenuePolicies, clientCount, totalRevenue);
+    }
+
+    private List<BonusCalculationResponse.BonusDetail> buildBonusDetails(List<BonusPolicy> clientCountPolicies,
+                                                                         List<BonusPolicy> revenuePolicies,
+                                                                         Integer clientCount, BigDecimal totalRevenue) {
+        List<BonusCalculationResponse.BonusDetail> bonusDetails = new ArrayList<>();
         
         for (BonusPolicy policy : clientCountPolicies) {
             bonusDetails.add(BonusCalculationResponse.BonusDetail.builder()
@@ -120,10 +165,6 @@ public class BonusCalculationService {
                 .build());
         }
         
-        // Calcular bônus por faturamento
-        List<BonusPolicy> revenuePolicies = bonusPolicyService
-            .getEligibleRevenuePolicies(calculationDate, totalRevenue);
-        
         for (BonusPolicy policy : revenuePolicies) {
             bonusDetails.add(BonusCalculationResponse.BonusDetail.builder()
                 .policyName(policy.getName())
@@ -142,14 +183,102 @@ public class BonusCalculationService {
      * Este método pode ser usado para processamento em lote
      */
     public List<BonusCalculationResponse> calculateBonusForAllPartners(YearMonth referenceMonth) {
-        List<Partner> allPartners = partnerRepository.findByStatus(Partner.Status.ACTIVE);
-        
-        return allPartners.stream()
-            .map(partner -> calculateBonusForPartner(partner.getPartnerId(), referenceMonth))
+        return calculateBonusesForActivePartners(referenceMonth).values().stream()
             .filter(calculation -> calculation.getTotalBonus().compareTo(BigDecimal.ZERO) > 0)
             .toList();
     }
 
+    /**
+     * Total de bônus de cada parceiro ativo no mês, na ordem de PartnerRepository.findByStatus
+     */
+    public Map<String, BigDecimal> calculateTotalBonusByPartner(YearMonth referenceMonth) {
+        Map<String, BigDecimal> totals = new LinkedHashMap<>();
+        calculateBonusesForActivePartners(referenceMonth)
+            .forEach((partnerId, calculation) -> totals.put(partnerId, calculation.getTotalBonus()));
+        return totals;
+    }
+
+    /**
+     * Cálculo em lote para todos os parceiros ativos: uma consulta agregada de clientes por parceiro,
+     * e a avaliação de cada parceiro em memória sobre o {@link BonusPolicyIndex}.
+     * O resultado é o mesmo de calculateBonusForPartner chamado para cada parceiro.
+     */
+    public Map<String, BonusCalculationResponse> calculateBonusesForActivePartners(YearMonth referenceMonth) {
+        LocalDate calculationDate = referenceMonth.atDay(1);
+
+        List<Partner> partners = partnerRepository.findByStatus(Partner.Status.ACTIVE);
+
+        Map<String, Object[]> activityByPartner = new HashMap<>();
+        for (Object[] row : clientRepository.summarizeActiveClientsByPartnerOnDate(calculationDate)) {
+            activityByPartner.put((String) row[0], row);
+        }
+
+        BonusCalculationResponse[] calculations = new BonusCalculationResponse[partners.size()];
+        int step = parallelBatch ? Math.max(1, chunkSize) : Math.max(1, partners.size());
+
+        // Cada tarefa avalia uma faixa de parceiros e grava na mesma posição da lista, preservando a ordem
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int from = 0; from < partners.size(); from += step) {
+            int start = from;
+            int end = Math.min(from + step, partners.size());
+            Runnable chunk = () -> {
+                for (int i = start; i < end; i++) {
+                    String partnerId = partners.get(i).getPartnerId();
+                    calculations[i] = evaluatePartner(partnerId, referenceMonth, calculationDate,
+                        activityByPartner.get(partnerId));
+                }
+            };
+            if (parallelBatch) {
+                futures.add(CompletableFuture.runAsync(chunk, bonusTaskExecutor));
+            } else {
+                chunk.run();
+            }
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).exceptionally(ex -> null).join();
+        for (CompletableFuture<Void> future : futures) {
+            future.join();
+        }
+
+        Map<String, BonusCalculationResponse> result = new LinkedHashMap<>();
+        for (BonusCalculationResponse calculation : calculations) {
+            result.put(calculation.getPartnerId(), calculation);
+        }
+        log.info("Bônus calculados em lote para {} parceiros em {}", result.size(), referenceMonth);
+        return result;
+    }
+
+    private BonusCalculationResponse evaluatePartner(String partnerId, YearMonth referenceMonth,
+                                                     LocalDate calculationDate, Object[] activity) {
+        int activeClientsCount = activity != null ? ((Number) activity[1]).intValue() : 0;
+        BigDecimal totalRevenue = activity != null ? toBigDecimal(activity[2]) : BigDecimal.ZERO;
+
+        List<BonusPolicy> eligibleClientCount = bonusPolicyIndex
+            .findEligibleClientCountPolicies(calculationDate, activeClientsCount);
+        List<BonusPolicy> eligibleRevenue = bonusPolicyIndex
+            .findEligibleRevenuePolicies(calculationDate, totalRevenue);
+
+        List<BonusCalculationResponse.BonusDetail> bonusDetails = buildBonusDetails(
+            eligibleClientCount, eligibleRevenue, activeClientsCount, totalRevenue);
+
+        BigDecimal totalBonus = bonusDetails.stream()
+            .map(BonusCalculationResponse.BonusDetail::getBonusAmount)
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        return BonusCalculationResponse.builder()
+            .partnerId(partnerId)
+            .period(referenceMonth.toString())
+            .activeClientsCount(activeClientsCount)
+            .totalRevenue(totalRevenue)
+            .totalBonus(totalBonus)
+            .bonusDetails(bonusDetails)
+            .build();
+    }
+
+    private BigDecimal toBigDecimal(Object value) {
+        return value instanceof BigDecimal ? (BigDecimal) value : new BigDecimal(value.toString());
+    }
+
     /**
      * Verifica se uma política de bônus é aplicável em uma data específica
      */
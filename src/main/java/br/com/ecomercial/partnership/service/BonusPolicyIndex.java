@@ -0,0 +1,209 @@
+package br.com.ecomercial.partnership.service;
+
+import br.com.ecomercial.partnership.entity.BonusPolicy;
+import br.com.ecomercial.partnership.repository.BonusPolicyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Índice em memória das políticas de bônus ACTIVE, dividido em segmentos de vigência.
+ *
+ * Dentro de um segmento o conjunto de políticas vigentes não muda; elas ficam ordenadas por
+ * thresholdClients e por revenueThreshold, de modo que as elegíveis para um valor são o prefixo
+ * encontrado por busca binária. O snapshot é imutável e substituído atomicamente quando o
+ * {@link BonusPolicyService} altera uma política, ou quando fica mais antigo que
+ * bonus-policy-index.max-age-seconds (alterações feitas por outras réplicas).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BonusPolicyIndex {
+
+    private final BonusPolicyRepository bonusPolicyRepository;
+
+    @Value("${bonus-policy-index.max-age-seconds:60}")
+    private long maxAgeSeconds;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Equivalente em memória a BonusPolicyRepository.findEligibleClientCountPolicies
+     * (maior limite primeiro)
+     */
+    public List<BonusPolicy> findEligibleClientCountPolicies(LocalDate date, int clientCount) {
+        Segment segment = currentSnapshot().find(date.toEpochDay());
+        if (segment == null) {
+            return Collections.emptyList();
+        }
+        return descendingPrefix(segment.clientCountPolicies, upperBound(segment.clientThresholds, clientCount));
+    }
+
+    /**
+     * Equivalente em memória a BonusPolicyRepository.findEligibleRevenuePolicies
+     * (maior limite primeiro)
+     */
+    public List<BonusPolicy> findEligibleRevenuePolicies(LocalDate date, BigDecimal revenue) {
+        Segment segment = currentSnapshot().find(date.toEpochDay());
+        if (segment == null) {
+            return Collections.emptyList();
+        }
+        return descendingPrefix(segment.revenuePolicies, upperBound(segment.revenueThresholdCents, CommissionMath.toCents(revenue)));
+    }
+
+    /**
+     * Recarrega o índice após o commit da transação corrente (ou imediatamente, fora de transação)
+     */
+    public void rebuildAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rebuild();
+                }
+            });
+        } else {
+            rebuild();
+        }
+    }
+
+    /**
+     * Recarrega todas as políticas ACTIVE e substitui o snapshot atual
+     */
+    public synchronized void rebuild() {
+        List<BonusPolicy> activePolicies = bonusPolicyRepository.findByStatus(BonusPolicy.Status.ACTIVE);
+        snapshot = new Snapshot(activePolicies, System.nanoTime());
+        log.debug("Índice de políticas de bônus recarregado com {} políticas ativas", activePolicies.size());
+    }
+
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null || System.nanoTime() - current.loadedAt > TimeUnit.SECONDS.toNanos(maxAgeSeconds)) {
+            synchronized (this) {
+                if (snapshot == current) {
+                    rebuild();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Quantidade de limites menores ou iguais ao valor (limites em ordem crescente)
+     */
+    static int upperBound(long[] thresholds, long value) {
+        int low = 0;
+        int high = thresholds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (thresholds[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static List<BonusPolicy> descendingPrefix(BonusPolicy[] ascending, int length) {
+        List<BonusPolicy> eligible = new ArrayList<>(length);
+        for (int i = length - 1; i >= 0; i--) {
+            eligible.add(ascending[i]);
+        }
+        return eligible;
+    }
+
+    /**
+     * Políticas vigentes em todo o intervalo [início do segmento, início do próximo)
+     */
+    private static final class Segment {
+
+        private final long[] clientThresholds;
+        private final BonusPolicy[] clientCountPolicies;
+        private final long[] revenueThresholdCents;
+        private final BonusPolicy[] revenuePolicies;
+
+        private Segment(List<BonusPolicy> effectivePolicies) {
+            List<BonusPolicy> clientCount = new ArrayList<>();
+            List<BonusPolicy> revenue = new ArrayList<>();
+            for (BonusPolicy policy : effectivePolicies) {
+                if (policy.getType() == BonusPolicy.BonusType.CLIENT_COUNT && policy.getThresholdClients() != null) {
+                    clientCount.add(policy);
+                } else if (policy.getType() == BonusPolicy.BonusType.REVENUE_THRESHOLD && policy.getRevenueThreshold() != null) {
+                    revenue.add(policy);
+                }
+            }
+            clientCount.sort(Comparator.comparing(BonusPolicy::getThresholdClients));
+            revenue.sort(Comparator.comparing(BonusPolicy::getRevenueThreshold));
+
+            this.clientCountPolicies = clientCount.toArray(new BonusPolicy[0]);
+            this.clientThresholds = new long[clientCountPolicies.length];
+            for (int i = 0; i < clientCountPolicies.length; i++) {
+                clientThresholds[i] = clientCountPolicies[i].getThresholdClients();
+            }
+            this.revenuePolicies = revenue.toArray(new BonusPolicy[0]);
+            this.revenueThresholdCents = new long[revenuePolicies.length];
+            for (int i = 0; i < revenuePolicies.length; i++) {
+                revenueThresholdCents[i] = CommissionMath.toCents(revenuePolicies[i].getRevenueThreshold());
+            }
+        }
+    }
+
+    /**
+     * Segmentos delimitados pelas datas em que alguma política entra ou sai de vigência
+     */
+    private static final class Snapshot {
+
+        private final long[] segmentStarts;
+        private final Segment[] segments;
+        private final long loadedAt;
+
+        private Snapshot(List<BonusPolicy> activePolicies, long loadedAt) {
+            this.loadedAt = loadedAt;
+
+            TreeSet<Long> boundaries = new TreeSet<>();
+            for (BonusPolicy policy : activePolicies) {
+                boundaries.add(policy.getEffectiveFrom().toEpochDay());
+                if (policy.getEffectiveTo() != null) {
+                    boundaries.add(policy.getEffectiveTo().toEpochDay() + 1);
+                }
+            }
+
+            this.segmentStarts = new long[boundaries.size()];
+            this.segments = new Segment[boundaries.size()];
+            int i = 0;
+            for (long start : boundaries) {
+                List<BonusPolicy> effective = new ArrayList<>();
+                for (BonusPolicy policy : activePolicies) {
+                    long from = policy.getEffectiveFrom().toEpochDay();
+                    long to = policy.getEffectiveTo() != null ? policy.getEffectiveTo().toEpochDay() : Long.MAX_VALUE;
+                    if (from <= start && to >= start) {
+                        effective.add(policy);
+                    }
+                }
+                segmentStarts[i] = start;
+                segments[i] = new Segment(effective);
+                i++;
+            }
+        }
+
+        private Segment find(long day) {
+            // Último segmento iniciado em ou antes do dia
+            int index = upperBound(segmentStarts, day) - 1;
+            return index >= 0 ? segments[index] : null;
+        }
+    }
+}
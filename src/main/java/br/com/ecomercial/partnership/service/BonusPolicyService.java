@@ -5,6 +5,7 @@ import br.com.ecomercial.partnership.dto.BonusPolicyResponse;
 import br.com.ecomercial.partnership.entity.BonusPolicy;
 import br.com.ecomercial.partnership.repository.BonusPolicyRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,6 +19,8 @@ import java.util.stream.Collectors;
 public class BonusPolicyService {
 
     private final BonusPolicyRepository bonusPolicyRepository;
+    private final BonusPolicyIndex bonusPolicyIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     public BonusPolicyResponse createBonusPolicy(BonusPolicyRequest request) {
         // Validar se o nome já existe
@@ -46,6 +49,8 @@ public class BonusPolicyService {
                 .build();
 
         BonusPolicy savedPolicy = bonusPolicyRepository.save(policy);
+        bonusPolicyIndex.rebuildAfterCommit();
+        eventPublisher.publishEvent(PartnerDataChanged.allPartners());
         return mapToResponse(savedPolicy);
     }
 
@@ -92,6 +97,8 @@ public class BonusPolicyService {
         policy.setEffectiveTo(request.getEffectiveTo());
 
         BonusPolicy updatedPolicy = bonusPolicyRepository.save(policy);
+        bonusPolicyIndex.rebuildAfterCommit();
+        eventPublisher.publishEvent(PartnerDataChanged.allPartners());
         return mapToResponse(updatedPolicy);
     }
 
@@ -101,6 +108,8 @@ public class BonusPolicyService {
 
         policy.setStatus(BonusPolicy.Status.INACTIVE);
         bonusPolicyRepository.save(policy);
+        bonusPolicyIndex.rebuildAfterCommit();
+        eventPublisher.publishEvent(PartnerDataChanged.allPartners());
     }
 
     @Transactional(readOnly = true)
@@ -119,12 +128,12 @@ public class BonusPolicyService {
 
     @Transactional(readOnly = true)
     public List<BonusPolicy> getEligibleClientCountPolicies(LocalDate date, Integer clientCount) {
-        return bonusPolicyRepository.findEligibleClientCountPolicies(date, clientCount);
+        return bonusPolicyIndex.findEligibleClientCountPolicies(date, clientCount);
     }
 
     @Transactional(readOnly = true)
     public List<BonusPolicy> getEligibleRevenuePolicies(LocalDate date, java.math.BigDecimal revenue) {
-        return bonusPolicyRepository.findEligibleRevenuePolicies(date, revenue);
+        return bonusPolicyIndex.findEligibleRevenuePolicies(date, revenue);
     }
 
     private void validatePolicyThresholds(BonusPolicyRequest request) {
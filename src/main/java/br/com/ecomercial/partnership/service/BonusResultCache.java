@@ -0,0 +1,112 @@
+package br.com.ecomercial.partnership.service;
+
+import br.com.ecomercial.partnership.dto.BonusCalculationResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cache limitado (LRU) de BonusCalculationResponse por (parceiro, mês).
+ *
+ * Invalidado por {@link PartnerDataChanged} após o commit: alterações de clientes invalidam apenas
+ * o parceiro afetado, as demais invalidam tudo. Gerações por parceiro impedem que um cálculo
+ * iniciado antes da invalidação do seu parceiro (ou de uma global) grave um resultado antigo, sem
+ * descartar os cálculos em andamento dos demais parceiros. Entradas mais antigas que
+ * bonus-result-cache.max-age-seconds são recalculadas (alterações feitas por outras réplicas).
+ */
+@Component
+@RequiredArgsConstructor
+public class BonusResultCache {
+
+    private final MetricsService metricsService;
+
+    @Value("${bonus-result-cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${bonus-result-cache.max-age-seconds:60}")
+    private long maxAgeSeconds;
+
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            return size() > maxSize;
+        }
+    };
+
+    /** Incrementado a cada invalidação; marca o início dos cálculos */
+    private long generation;
+
+    /** Geração da última invalidação global */
+    private long allInvalidatedAt;
+
+    /** Geração da última invalidação de cada parceiro desde a última invalidação global */
+    private final Map<String, Long> partnerInvalidatedAt = new HashMap<>();
+
+    /**
+     * Resultado em cache ou calculado pelo loader (fora do lock) e armazenado
+     */
+    public BonusCalculationResponse get(String partnerId, YearMonth referenceMonth,
+                                        Supplier<BonusCalculationResponse> loader) {
+        Key key = new Key(partnerId, referenceMonth);
+        long startedAt;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && System.nanoTime() - entry.loadedAt <= TimeUnit.SECONDS.toNanos(maxAgeSeconds)) {
+                metricsService.incrementBonusCacheHit();
+                return entry.value;
+            }
+            startedAt = generation;
+        }
+
+        metricsService.incrementBonusCacheMiss();
+        BonusCalculationResponse value = loader.get();
+
+        synchronized (this) {
+            if (allInvalidatedAt <= startedAt && partnerInvalidatedAt.getOrDefault(partnerId, 0L) <= startedAt) {
+                entries.put(key, new Entry(value, System.nanoTime()));
+            }
+        }
+        return value;
+    }
+
+    // Antes do cache de dashboard, que usa estes resultados ao ser recalculado
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPartnerDataChanged(PartnerDataChanged event) {
+        if (event.affectsAllPartners()) {
+            invalidateAll();
+        } else {
+            invalidatePartner(event.partnerId());
+        }
+    }
+
+    public synchronized void invalidatePartner(String partnerId) {
+        generation++;
+        partnerInvalidatedAt.put(partnerId, generation);
+        entries.keySet().removeIf(key -> key.partnerId.equals(partnerId));
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        allInvalidatedAt = generation;
+        // A invalidação global já descarta todo cálculo iniciado antes dela
+        partnerInvalidatedAt.clear();
+        entries.clear();
+    }
+
+    private record Key(String partnerId, YearMonth referenceMonth) {
+    }
+
+    private record Entry(BonusCalculationResponse value, long loadedAt) {
+    }
+}
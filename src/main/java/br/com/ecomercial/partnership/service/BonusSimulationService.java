@@ -0,0 +1,204 @@
+package br.com.ecomercial.partnership.service;
+
+import br.com.ecomercial.partnership.dto.BonusSimulationRequest;
+import br.com.ecomercial.partnership.dto.BonusSimulationResponse;
+import br.com.ecomercial.partnership.entity.BonusPolicy;
+import br.com.ecomercial.partnership.entity.Partner;
+import br.com.ecomercial.partnership.repository.ClientRepository;
+import br.com.ecomercial.partnership.repository.PartnerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Simulação de políticas de bônus candidatas antes de cadastrá-las.
+ *
+ * A carteira é carregada uma vez por simulação como arrays primitivos (clientes ativos e
+ * faturamento em centavos por mês e parceiro, com a mesma regra de atividade do cálculo de bônus).
+ * Cada cenário vira limites ordenados com somas acumuladas dos bônus, então o bônus de um
+ * parceiro no mês sai de duas buscas binárias. Os cenários rodam em paralelo no pool de bônus.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class BonusSimulationService {
+
+    private final ClientRepository clientRepository;
+    private final PartnerRepository partnerRepository;
+    private final Executor bonusTaskExecutor;
+
+    public BonusSimulationResponse simulate(BonusSimulationRequest request) {
+        long start = System.nanoTime();
+
+        List<YearMonth> months = request.getMonths().stream().distinct().map(YearMonth::parse).toList();
+        for (BonusSimulationRequest.Scenario scenario : request.getScenarios()) {
+            scenario.getPolicies().forEach(this::validateCandidate);
+        }
+
+        Book book = loadBook(months);
+
+        List<CompletableFuture<BonusSimulationResponse.ScenarioResult>> futures = new ArrayList<>();
+        for (BonusSimulationRequest.Scenario scenario : request.getScenarios()) {
+            futures.add(CompletableFuture.supplyAsync(() -> evaluate(scenario, book), bonusTaskExecutor));
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).exceptionally(ex -> null).join();
+        List<BonusSimulationResponse.ScenarioResult> results = new ArrayList<>();
+        for (CompletableFuture<BonusSimulationResponse.ScenarioResult> future : futures) {
+            results.add(future.join());
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("Simulação de bônus: {} cenários, {} parceiros, {} meses em {} ms",
+                results.size(), book.partners, months.size(), elapsedMs);
+
+        return BonusSimulationResponse.builder()
+                .months(months.stream().map(YearMonth::toString).toList())
+                .partners(book.partners)
+                .elapsedMs(elapsedMs)
+                .scenarios(results)
+                .build();
+    }
+
+    private Book loadBook(List<YearMonth> months) {
+        List<Partner> partners = partnerRepository.findByStatus(Partner.Status.ACTIVE);
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < partners.size(); i++) {
+            positions.put(partners.get(i).getPartnerId(), i);
+        }
+
+        // Parceiros sem clientes ativos no mês ficam com zero, como no cálculo de bônus
+        int[][] clientCounts = new int[months.size()][partners.size()];
+        long[][] revenueCents = new long[months.size()][partners.size()];
+        for (int m = 0; m < months.size(); m++) {
+            for (Object[] row : clientRepository.summarizeActiveClientsByPartnerOnDate(months.get(m).atDay(1))) {
+                Integer position = positions.get((String) row[0]);
+                if (position != null) {
+                    clientCounts[m][position] = ((Number) row[1]).intValue();
+                    revenueCents[m][position] = CommissionMath.toCents(row[2] instanceof BigDecimal amount
+                            ? amount : new BigDecimal(row[2].toString()));
+                }
+            }
+        }
+        return new Book(partners.size(), clientCounts, revenueCents);
+    }
+
+    private BonusSimulationResponse.ScenarioResult evaluate(BonusSimulationRequest.Scenario scenario, Book book) {
+        Ladder clientCountLadder = Ladder.of(scenario.getPolicies(), BonusPolicy.BonusType.CLIENT_COUNT);
+        Ladder revenueLadder = Ladder.of(scenario.getPolicies(), BonusPolicy.BonusType.REVENUE_THRESHOLD);
+
+        long[] payouts = new long[book.partners];
+        for (int m = 0; m < book.clientCounts.length; m++) {
+            int[] counts = book.clientCounts[m];
+            long[] revenue = book.revenueCents[m];
+            for (int p = 0; p < book.partners; p++) {
+                payouts[p] += clientCountLadder.bonusCents(counts[p]) + revenueLadder.bonusCents(revenue[p]);
+            }
+        }
+
+        Arrays.sort(payouts);
+        long totalCents = 0L;
+        int paid = 0;
+        List<BonusSimulationResponse.PayoutBucket> distribution = new ArrayList<>();
+        for (int i = 0; i < payouts.length; ) {
+            int j = i;
+            while (j < payouts.length && payouts[j] == payouts[i]) {
+                j++;
+            }
+            distribution.add(BonusSimulationResponse.PayoutBucket.builder()
+                    .payout(CommissionMath.toAmount(payouts[i]))
+                    .partners(j - i)
+                    .build());
+            totalCents += payouts[i] * (j - i);
+            if (payouts[i] > 0) {
+                paid += j - i;
+            }
+            i = j;
+        }
+
+        return BonusSimulationResponse.ScenarioResult.builder()
+                .name(scenario.getName())
+                .totalCost(CommissionMath.toAmount(totalCents))
+                .partnersPaid(paid)
+                .averagePayout(paid == 0 ? CommissionMath.toAmount(0L)
+                        : CommissionMath.toAmount(CommissionMath.divideHalfUp(totalCents, paid)))
+                .p50Payout(CommissionMath.toAmount(percentile(payouts, 50)))
+                .p90Payout(CommissionMath.toAmount(percentile(payouts, 90)))
+                .p99Payout(CommissionMath.toAmount(percentile(payouts, 99)))
+                .maxPayout(CommissionMath.toAmount(payouts.length == 0 ? 0L : payouts[payouts.length - 1]))
+                .distribution(distribution)
+                .build();
+    }
+
+    /**
+     * Percentil pelo método nearest-rank sobre valores já ordenados
+     */
+    private long percentile(long[] sorted, int percent) {
+        if (sorted.length == 0) {
+            return 0L;
+        }
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private void validateCandidate(BonusSimulationRequest.CandidatePolicy policy) {
+        if (policy.getType() == BonusPolicy.BonusType.CLIENT_COUNT && policy.getThresholdClients() == null) {
+            throw new RuntimeException("Threshold clients is required for CLIENT_COUNT type");
+        }
+
+        if (policy.getType() == BonusPolicy.BonusType.REVENUE_THRESHOLD && policy.getRevenueThreshold() == null) {
+            throw new RuntimeException("Revenue threshold is required for REVENUE_THRESHOLD type");
+        }
+    }
+
+    /**
+     * Carteira simulada: [mês][parceiro] nas posições de PartnerRepository.findByStatus
+     */
+    private record Book(int partners, int[][] clientCounts, long[][] revenueCents) {
+    }
+
+    /**
+     * Limites em ordem crescente com a soma acumulada dos bônus: bonusCents(v) é a soma dos bônus
+     * de todas as políticas com limite menor ou igual a v
+     */
+    private record Ladder(long[] thresholds, long[] cumulativeBonusCents) {
+
+        static Ladder of(List<BonusSimulationRequest.CandidatePolicy> policies, BonusPolicy.BonusType type) {
+            List<long[]> steps = new ArrayList<>();
+            for (BonusSimulationRequest.CandidatePolicy policy : policies) {
+                if (policy.getType() != type) {
+                    continue;
+                }
+                long threshold = type == BonusPolicy.BonusType.CLIENT_COUNT
+                        ? policy.getThresholdClients()
+                        : CommissionMath.toCents(policy.getRevenueThreshold());
+                steps.add(new long[]{threshold, CommissionMath.toCents(policy.getBonusAmount())});
+            }
+            steps.sort((a, b) -> Long.compare(a[0], b[0]));
+
+            long[] thresholds = new long[steps.size()];
+            long[] cumulative = new long[steps.size() + 1];
+            for (int i = 0; i < steps.size(); i++) {
+                thresholds[i] = steps.get(i)[0];
+                cumulative[i + 1] = cumulative[i] + steps.get(i)[1];
+            }
+            return new Ladder(thresholds, cumulative);
+        }
+
+        long bonusCents(long value) {
+            return cumulativeBonusCents[BonusPolicyIndex.upperBound(thresholds, value)];
+        }
+    }
+}
@@ -9,6 +9,7 @@ import br.com.ecomercial.partnership.entity.User;
 import br.com.ecomercial.partnership.repository.ClientRepository;
 import br.com.ecomercial.partnership.repository.PartnerRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -25,6 +26,7 @@ public class ClientService {
     
     private final ClientRepository clientRepository;
     private final PartnerRepository partnerRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
     public ClientResponse createClient(String partnerId, ClientRequest request) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
@@ -61,6 +63,7 @@ public class ClientService {
                 .build();
         
         Client savedClient = clientRepository.save(client);
+        eventPublisher.publishEvent(PartnerDataChanged.partner(partnerId));
         return mapToResponse(savedClient);
     }
     
@@ -124,6 +127,7 @@ public class ClientService {
         client.setMonthlyBilling(request.getMonthlyBilling());
         
         Client updatedClient = clientRepository.save(client);
+        eventPublisher.publishEvent(PartnerDataChanged.partner(client.getPartnerId()));
         return mapToResponse(updatedClient);
     }
     
@@ -142,6 +146,7 @@ public class ClientService {
         
         client.setStatus(Client.Status.INACTIVE);
         clientRepository.save(client);
+        eventPublisher.publishEvent(PartnerDataChanged.partner(client.getPartnerId()));
     }
     
     public ClientResponse changeClientStatus(Long clientId, ClientStatusChangeRequest request) {
@@ -172,6 +177,7 @@ public class ClientService {
         }
         
         Client updatedClient = clientRepository.save(client);
+        eventPublisher.publishEvent(PartnerDataChanged.partner(client.getPartnerId()));
         return mapToResponse(updatedClient);
     }
     
@@ -7,6 +7,7 @@ import br.com.ecomercial.partnership.entity.ClientTypeHistory;
 import br.com.ecomercial.partnership.repository.ClientRepository;
 import br.com.ecomercial.partnership.repository.ClientTypeHistoryRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,6 +22,7 @@ public class ClientTypeHistoryService {
     
     private final ClientTypeHistoryRepository clientTypeHistoryRepository;
     private final ClientRepository clientRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Transactional(readOnly = true)
     public List<ClientTypeHistoryResponse> getClientTypeHistory(Long clientId) {
@@ -72,6 +74,9 @@ public class ClientTypeHistoryService {
             client.setClientType(request.getClientType());
             clientRepository.save(client);
         }
+
+        // O tipo é resolvido por mês pela linha do tempo: alterações futuras também mudam estimativas
+        eventPublisher.publishEvent(PartnerDataChanged.partner(client.getPartnerId()));
         
         return mapToResponse(savedHistory);
     }
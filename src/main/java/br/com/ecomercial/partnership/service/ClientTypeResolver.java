@@ -0,0 +1,60 @@
+package br.com.ecomercial.partnership.service;
+
+import br.com.ecomercial.partnership.repository.ClientTypeHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Resolve em lote o tipo efetivo dos clientes no mês a partir do histórico de tipos: uma única
+ * consulta por faixa carrega os intervalos que se sobrepõem ao mês e monta a
+ * {@link ClientTypeTimeline}, evitando uma consulta por cliente
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ClientTypeResolver {
+
+    private final ClientTypeHistoryRepository clientTypeHistoryRepository;
+
+    /**
+     * Linha do tempo de todos os clientes no mês
+     */
+    public ClientTypeTimeline forMonth(YearMonth referenceMonth) {
+        return forClientIdRange(referenceMonth, 0L, Long.MAX_VALUE);
+    }
+
+    /**
+     * Linha do tempo dos clientes com id em [fromClientId, toClientId] no mês
+     */
+    public ClientTypeTimeline forClientIdRange(YearMonth referenceMonth, long fromClientId, long toClientId) {
+        return forClientIdRange(referenceMonth, referenceMonth, fromClientId, toClientId);
+    }
+
+    /**
+     * Linha do tempo dos clientes com id em [fromClientId, toClientId] de fromMonth a toMonth
+     */
+    public ClientTypeTimeline forClientIdRange(YearMonth fromMonth, YearMonth toMonth, long fromClientId, long toClientId) {
+        List<Object[]> rows = clientTypeHistoryRepository
+                .findIntervalsOverlappingPeriod(fromClientId, toClientId, fromMonth.atDay(1), toMonth.atEndOfMonth());
+        return new ClientTypeTimeline(rows);
+    }
+
+    /**
+     * Linha do tempo dos clientes de um parceiro no mês
+     */
+    public ClientTypeTimeline forPartner(YearMonth referenceMonth, String partnerId) {
+        LocalDate monthStart = referenceMonth.atDay(1);
+        LocalDate monthEnd = referenceMonth.atEndOfMonth();
+
+        List<Object[]> rows = clientTypeHistoryRepository
+                .findIntervalsOverlappingPeriodForPartner(partnerId, monthStart, monthEnd);
+        return new ClientTypeTimeline(rows);
+    }
+}
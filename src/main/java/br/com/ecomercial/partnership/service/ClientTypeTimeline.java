@@ -0,0 +1,86 @@
+package br.com.ecomercial.partnership.service;
+
+import br.com.ecomercial.partnership.entity.Client;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Linha do tempo imutável dos tipos de cliente carregada do client_type_history.
+ *
+ * Os intervalos ficam em arrays paralelos ordenados por (clientId, effectiveFrom): o cliente é
+ * localizado por busca binária e seus intervalos ocupam a faixa [offsets[i], offsets[i + 1]).
+ * Clientes sem histórico no período usam o tipo atual do cadastro.
+ */
+public final class ClientTypeTimeline {
+
+    private static final Client.ClientType[] TYPES = Client.ClientType.values();
+
+    private final long[] clientIds;
+    private final int[] offsets;
+    private final long[] fromDays;
+    private final long[] toDays;
+    private final byte[] types;
+
+    /**
+     * @param rows (clientId, clientType, effectiveFrom, effectiveTo) ordenados por clientId e effectiveFrom
+     */
+    ClientTypeTimeline(List<Object[]> rows) {
+        int size = rows.size();
+        long[] ids = new long[size];
+        int[] starts = new int[size + 1];
+        this.fromDays = new long[size];
+        this.toDays = new long[size];
+        this.types = new byte[size];
+
+        int clients = 0;
+        for (int j = 0; j < size; j++) {
+            Object[] row = rows.get(j);
+            long clientId = ((Number) row[0]).longValue();
+            if (clients == 0 || ids[clients - 1] != clientId) {
+                ids[clients] = clientId;
+                starts[clients] = j;
+                clients++;
+            }
+            types[j] = (byte) ((Client.ClientType) row[1]).ordinal();
+            fromDays[j] = ((LocalDate) row[2]).toEpochDay();
+            toDays[j] = row[3] != null ? ((LocalDate) row[3]).toEpochDay() : Long.MAX_VALUE;
+        }
+        starts[clients] = size;
+
+        this.clientIds = Arrays.copyOf(ids, clients);
+        this.offsets = Arrays.copyOf(starts, clients + 1);
+    }
+
+    /**
+     * Tipo efetivo do cliente na data; sem intervalo vigente, o tipo atual do cadastro
+     */
+    public Client.ClientType resolve(Client client, LocalDate date) {
+        Client.ClientType type = find(client.getId(), date);
+        return type != null ? type : client.getClientType();
+    }
+
+    /**
+     * Tipo vigente no histórico para o cliente na data, ou null se não houver
+     */
+    public Client.ClientType find(long clientId, LocalDate date) {
+        int i = Arrays.binarySearch(clientIds, clientId);
+        if (i < 0) {
+            return null;
+        }
+
+        // Mesma precedência de findActiveTypeForDate: o vigente com effectiveFrom mais recente
+        long day = date.toEpochDay();
+        for (int j = offsets[i + 1] - 1; j >= offsets[i]; j--) {
+            if (fromDays[j] <= day && toDays[j] >= day) {
+                return TYPES[types[j]];
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        return clientIds.length;
+    }
+}
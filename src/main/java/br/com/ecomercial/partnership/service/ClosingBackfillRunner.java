@@ -0,0 +1,100 @@
+package br.com.ecomercial.partnership.service;
+
+import br.com.ecomercial.partnership.entity.MonthlyClosing;
+import br.com.ecomercial.partnership.repository.ClientRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Executa os backfills fora da thread da requisição: as partições da carteira de clientes são
+ * processadas concorrentemente (no máximo closing.backfill.max-concurrency por vez), cada uma
+ * calculando todos os meses do backfill em uma única leitura
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClosingBackfillRunner {
+
+    private final ClosingBackfillService closingBackfillService;
+    private final ClosingCalculationService closingCalculationService;
+    private final ClientRepository clientRepository;
+    private final Executor closingTaskExecutor;
+    private final ClusteredClosingService clusteredClosingService;
+    private final ClosingLeaseService closingLeaseService;
+
+    @Value("${closing.backfill.partitions:8}")
+    private int partitions;
+
+    @Value("${closing.backfill.max-concurrency:2}")
+    private int maxConcurrency;
+
+    /**
+     * Solicitação de execução de um backfill
+     */
+    public record BackfillRequested(String backfillId) {
+    }
+
+    @Async("closingJobExecutor")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void run(BackfillRequested request) {
+        String backfillId = request.backfillId();
+
+        // Lease de posse do backfill, renovado pelo heartbeat: enquanto este nó estiver vivo, as
+        // outras réplicas não tratam o backfill como interrompido
+        String ownerLeaseKey = ClosingLeaseService.backfillLeaseKey(backfillId);
+        if (!closingLeaseService.tryAcquire(ownerLeaseKey)) {
+            log.debug("Backfill {} em execução em outro nó", backfillId);
+            return;
+        }
+
+        try {
+            // Lease de todos os meses: o backfill não concorre com /run ou jobs desses meses
+            clusteredClosingService.runExclusively(closingBackfillService.getReferenceMonths(backfillId), () -> {
+                runBackfill(backfillId);
+                return null;
+            });
+        } catch (Exception e) {
+            log.error("Erro no backfill {}: {}", backfillId, e.getMessage(), e);
+            closingBackfillService.markFailed(backfillId, e.getMessage());
+        } finally {
+            closingLeaseService.release(ownerLeaseKey);
+        }
+    }
+
+    private void runBackfill(String backfillId) {
+        List<MonthlyClosing> closings = closingBackfillService.prepare(backfillId);
+
+        Semaphore permits = new Semaphore(Math.max(1, maxConcurrency));
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (long[] range : ParallelClosingService.partitionRanges(clientRepository.findMaxId(), partitions)) {
+            permits.acquireUninterruptibly();
+            futures.add(CompletableFuture.runAsync(() -> {
+                try {
+                    Map<YearMonth, ClosingTotals> totals = closingCalculationService
+                            .calculateClosingDetailsForMonths(closings, range[0], range[1]);
+                    closingBackfillService.recordPartitionProgress(backfillId, totals);
+                } finally {
+                    permits.release();
+                }
+            }, closingTaskExecutor));
+        }
+
+        // Aguardar todas as partições antes de concluir (ou descartar em caso de falha)
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).exceptionally(ex -> null).join();
+        futures.forEach(CompletableFuture::join);
+
+        closingBackfillService.complete(backfillId);
+    }
+}
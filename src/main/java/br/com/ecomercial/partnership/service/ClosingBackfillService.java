@@ -0,0 +1,293 @@
+package br.com.ecomercial.partnership.service;
+
+import br.com.ecomercial.partnership.dto.ClosingBackfillResponse;
+import br.com.ecomercial.partnership.entity.ClosingBackfill;
+import br.com.ecomercial.partnership.entity.ClosingBackfillMonth;
+import br.com.ecomercial.partnership.entity.ClosingJob;
+import br.com.ecomercial.partnership.entity.MonthlyClosing;
+import br.com.ecomercial.partnership.entity.User;
+import br.com.ecomercial.partnership.repository.ClosingBackfillMonthRepository;
+import br.com.ecomercial.partnership.repository.ClosingBackfillRepository;
+import br.com.ecomercial.partnership.repository.ClosingJobRepository;
+import br.com.ecomercial.partnership.repository.MonthlyClosingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Refechamento de uma faixa de meses (backfill) após correções de regras. Os meses são
+ * recalculados juntos, em uma leitura da carteira de clientes por partição, e concluídos em
+ * ordem cronológica; o progresso é registrado por mês.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ClosingBackfillService {
+
+    private static final Set<ClosingBackfill.Status> ACTIVE_STATUSES =
+            EnumSet.of(ClosingBackfill.Status.ACCEPTED, ClosingBackfill.Status.PROCESSING);
+
+    private static final Set<ClosingJob.Status> ACTIVE_JOB_STATUSES =
+            EnumSet.of(ClosingJob.Status.ACCEPTED, ClosingJob.Status.PROCESSING);
+
+    private final ClosingBackfillRepository closingBackfillRepository;
+    private final ClosingBackfillMonthRepository closingBackfillMonthRepository;
+    private final ClosingJobRepository closingJobRepository;
+    private final MonthlyClosingRepository monthlyClosingRepository;
+    private final MonthlyClosingService monthlyClosingService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ClosingLeaseService closingLeaseService;
+
+    @Value("${closing.backfill.partitions:8}")
+    private int partitions;
+
+    @Value("${closing.backfill.max-months:24}")
+    private int maxMonths;
+
+    @Value("${closing.backfill.accepted-timeout-minutes:30}")
+    private long acceptedTimeoutMinutes;
+
+    /**
+     * Registra o backfill da faixa [fromMonth, toMonth], reabrindo os meses já concluídos, e
+     * dispara sua execução após o commit
+     */
+    public ClosingBackfillResponse submit(YearMonth fromMonth, YearMonth toMonth, String justification) {
+        if (fromMonth.isAfter(toMonth)) {
+            throw new RuntimeException("Invalid month range: " + fromMonth + " to " + toMonth);
+        }
+        long months = ChronoUnit.MONTHS.between(fromMonth, toMonth) + 1;
+        if (months > maxMonths) {
+            throw new RuntimeException("Backfill range exceeds " + maxMonths + " months");
+        }
+        if (closingBackfillRepository.existsByStatusIn(ACTIVE_STATUSES)) {
+            throw new RuntimeException("A closing backfill is already running");
+        }
+
+        String requestedBy = getCurrentUsername();
+        ClosingBackfill backfill = closingBackfillRepository.save(ClosingBackfill.builder()
+                .backfillId("backfill-" + UUID.randomUUID().toString().substring(0, 8))
+                .fromMonth(fromMonth)
+                .toMonth(toMonth)
+                .status(ClosingBackfill.Status.ACCEPTED)
+                .requestedBy(requestedBy)
+                .justification(justification)
+                .message("Backfill aceito para processamento")
+                .build());
+
+        for (YearMonth month = fromMonth; !month.isAfter(toMonth); month = month.plusMonths(1)) {
+            if (closingJobRepository.existsByReferenceMonthAndStatusIn(month, ACTIVE_JOB_STATUSES)) {
+                throw new RuntimeException("Closing job already running for month: " + month);
+            }
+
+            // Meses concluídos são reabertos com a justificativa do backfill
+            Optional<MonthlyClosing> existing = monthlyClosingRepository.findByReferenceMonth(month);
+            if (existing.isPresent() && existing.get().canBeReopened()) {
+                monthlyClosingService.reopenClosing(month, justification);
+            }
+
+            closingBackfillMonthRepository.save(ClosingBackfillMonth.builder()
+                    .closingBackfillId(backfill.getId())
+                    .referenceMonth(month)
+                    .status(ClosingBackfillMonth.Status.PENDING)
+                    .processedClients(0L)
+                    .processedPartitions(0)
+                    .totalPartitions(partitions)
+                    .build());
+        }
+
+        log.info("Backfill {} aceito para os meses {} a {}", backfill.getBackfillId(), fromMonth, toMonth);
+
+        // Executado pelo ClosingBackfillRunner somente após o commit
+        eventPublisher.publishEvent(new ClosingBackfillRunner.BackfillRequested(backfill.getBackfillId()));
+        return mapToResponse(backfill);
+    }
+
+    /**
+     * Obtém o progresso de um backfill
+     */
+    @Transactional(readOnly = true)
+    public ClosingBackfillResponse getBackfill(String backfillId) {
+        return mapToResponse(findBackfill(backfillId));
+    }
+
+    /**
+     * Meses do backfill em ordem cronológica
+     */
+    @Transactional(readOnly = true)
+    public List<YearMonth> getReferenceMonths(String backfillId) {
+        return findMonths(findBackfill(backfillId)).stream()
+                .map(ClosingBackfillMonth::getReferenceMonth)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Persiste o cabeçalho de cada mês e descarta seus detalhes anteriores; retorna os fechamentos
+     * em ordem cronológica
+     */
+    public List<MonthlyClosing> prepare(String backfillId) {
+        ClosingBackfill backfill = findBackfill(backfillId);
+        backfill.setStatus(ClosingBackfill.Status.PROCESSING);
+        backfill.setStartedAt(LocalDateTime.now());
+        backfill.setMessage("Backfill em processamento");
+        closingBackfillRepository.save(backfill);
+
+        List<MonthlyClosing> closings = new ArrayList<>();
+        for (ClosingBackfillMonth month : findMonths(backfill)) {
+            MonthlyClosing closing = monthlyClosingService.startClosing(month.getReferenceMonth());
+            monthlyClosingService.discardClosingDetails(closing);
+
+            month.setMonthlyClosingId(closing.getId());
+            month.setStatus(ClosingBackfillMonth.Status.PROCESSING);
+            closingBackfillMonthRepository.save(month);
+            closings.add(closing);
+        }
+        return closings;
+    }
+
+    /**
+     * Registra o progresso de uma partição concluída para cada mês
+     */
+    public void recordPartitionProgress(String backfillId, Map<YearMonth, ClosingTotals> totalsByMonth) {
+        for (ClosingBackfillMonth month : findMonths(findBackfill(backfillId))) {
+            ClosingTotals totals = totalsByMonth.get(month.getReferenceMonth());
+            closingBackfillMonthRepository.addPartitionProgress(month.getId(), totals != null ? totals.getTotalClients() : 0L);
+        }
+    }
+
+    /**
+     * Conclui os fechamentos em ordem cronológica com os totais agregados dos detalhes
+     */
+    public void complete(String backfillId) {
+        ClosingBackfill backfill = findBackfill(backfillId);
+
+        for (ClosingBackfillMonth month : findMonths(backfill)) {
+            MonthlyClosing closing = monthlyClosingRepository.findById(month.getMonthlyClosingId())
+                    .orElseThrow(() -> new RuntimeException("Monthly closing not found: " + month.getMonthlyClosingId()));
+            monthlyClosingService.completeClosingFromDetails(closing, backfill.getRequestedBy());
+
+            month.setStatus(ClosingBackfillMonth.Status.COMPLETED);
+            month.setCompletedAt(LocalDateTime.now());
+            month.setMessage("Fechamento concluído com sucesso");
+            closingBackfillMonthRepository.save(month);
+        }
+
+        backfill.setStatus(ClosingBackfill.Status.COMPLETED);
+        backfill.setCompletedAt(LocalDateTime.now());
+        backfill.setMessage("Backfill concluído com sucesso");
+        closingBackfillRepository.save(backfill);
+        log.info("Backfill {} concluído para os meses {} a {}", backfillId, backfill.getFromMonth(), backfill.getToMonth());
+    }
+
+    /**
+     * Marca o backfill como falho e descarta os detalhes dos meses não concluídos, que ficam
+     * IN_PROGRESS e podem ser reexecutados
+     */
+    public void markFailed(String backfillId, String message) {
+        ClosingBackfill backfill = findBackfill(backfillId);
+
+        for (ClosingBackfillMonth month : findMonths(backfill)) {
+            if (month.getStatus() == ClosingBackfillMonth.Status.COMPLETED) {
+                continue;
+            }
+            if (month.getMonthlyClosingId() != null) {
+                monthlyClosingRepository.findById(month.getMonthlyClosingId())
+                        .ifPresent(monthlyClosingService::discardClosingDetails);
+            }
+            month.setStatus(ClosingBackfillMonth.Status.FAILED);
+            month.setMessage(message);
+            closingBackfillMonthRepository.save(month);
+        }
+
+        backfill.setStatus(ClosingBackfill.Status.FAILED);
+        backfill.setCompletedAt(LocalDateTime.now());
+        backfill.setMessage("Erro no backfill: " + message);
+        closingBackfillRepository.save(backfill);
+    }
+
+    /**
+     * Backfills interrompidos pela parada de um nó são marcados como falhos para nova submissão.
+     * Roda periodicamente em todas as réplicas; um backfill só é considerado interrompido se o
+     * lease de posse do nó que o executava expirou. Backfills ainda aceitos só entram na
+     * verificação após closing.backfill.accepted-timeout-minutes, dando tempo ao nó que os
+     * recebeu de iniciá-los
+     */
+    @Scheduled(fixedDelayString = "${closing.cluster.resume-interval-ms:60000}")
+    public void failInterruptedBackfills() {
+        LocalDateTime acceptedBefore = LocalDateTime.now().minusMinutes(acceptedTimeoutMinutes);
+        for (ClosingBackfill backfill : closingBackfillRepository.findByStatusIn(ACTIVE_STATUSES)) {
+            if (backfill.getStatus() == ClosingBackfill.Status.ACCEPTED
+                    && backfill.getCreatedAt().isAfter(acceptedBefore)) {
+                continue;
+            }
+            String ownerLeaseKey = ClosingLeaseService.backfillLeaseKey(backfill.getBackfillId());
+            if (!closingLeaseService.tryAcquire(ownerLeaseKey)) {
+                continue;
+            }
+            try {
+                log.warn("Backfill {} interrompido; marcando como falho", backfill.getBackfillId());
+                markFailed(backfill.getBackfillId(), "Backfill interrompido pela parada da aplicação");
+            } finally {
+                closingLeaseService.release(ownerLeaseKey);
+            }
+        }
+    }
+
+    private ClosingBackfill findBackfill(String backfillId) {
+        return closingBackfillRepository.findByBackfillId(backfillId)
+                .orElseThrow(() -> new RuntimeException("Closing backfill not found: " + backfillId));
+    }
+
+    private List<ClosingBackfillMonth> findMonths(ClosingBackfill backfill) {
+        return closingBackfillMonthRepository.findByClosingBackfillIdOrderByReferenceMonthAsc(backfill.getId());
+    }
+
+    private String getCurrentUsername() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof User) {
+            return ((User) auth.getPrincipal()).getUsername();
+        }
+        return "system";
+    }
+
+    private ClosingBackfillResponse mapToResponse(ClosingBackfill backfill) {
+        return ClosingBackfillResponse.builder()
+                .backfillId(backfill.getBackfillId())
+                .fromMonth(backfill.getFromMonth().toString())
+                .toMonth(backfill.getToMonth().toString())
+                .status(backfill.getStatus())
+                .message(backfill.getMessage())
+                .startedAt(backfill.getStartedAt())
+                .completedAt(backfill.getCompletedAt())
+                .months(findMonths(backfill).stream()
+                        .map(month -> ClosingBackfillResponse.MonthProgress.builder()
+                                .referenceMonth(month.getReferenceMonth().toString())
+                                .status(month.getStatus())
+                                .monthlyClosingId(month.getMonthlyClosingId())
+                                .processedClients(month.getProcessedClients())
+                                .processedPartitions(month.getProcessedPartitions())
+                                .totalPartitions(month.getTotalPartitions())
+                                .message(month.getMessage())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+}
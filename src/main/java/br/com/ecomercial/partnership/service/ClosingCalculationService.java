@@ -0,0 +1,353 @@
+package br.com.ecomercial.partnership.service;
+
+import br.com.ecomercial.partnership.entity.Client;
+import br.com.ecomercial.partnership.entity.ClosingDetail;
+import br.com.ecomercial.partnership.entity.ClosingPartition;
+import br.com.ecomercial.partnership.entity.MonthlyClosing;
+import br.com.ecomercial.partnership.repository.BatchInsertRepository;
+import br.com.ecomercial.partnership.repository.ClientRepository;
+import br.com.ecomercial.partnership.repository.ClosingDetailRepository;
+import br.com.ecomercial.partnership.repository.ClosingPartitionRepository;
+import br.com.ecomercial.partnership.repository.MonthlyClosingRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.LongFunction;
+
+/**
+ * Cálculo dos detalhes do fechamento mensal por faixa de clientes, compartilhado pelas
+ * execuções sequencial e paralela do fechamento
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ClosingCalculationService {
+
+    private final ClientRepository clientRepository;
+    private final BatchInsertRepository batchInsertRepository;
+    private final ClosingDetailRepository closingDetailRepository;
+    private final ClosingPartitionRepository closingPartitionRepository;
+    private final MonthlyClosingRepository monthlyClosingRepository;
+    private final CommissionRuleIndex commissionRuleIndex;
+    private final ClientTypeResolver clientTypeResolver;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${closing.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * Calcula e grava os detalhes do fechamento para os clientes com id no intervalo
+     * (fromClientIdExclusive, toClientIdInclusive]. Os clientes ativos no mês são lidos em páginas
+     * por id (keyset), e cada chunk é gravado e removido do contexto de persistência, mantendo o
+     * uso de heap constante independentemente do tamanho da carteira
+     */
+    ClosingTotals calculateClosingDetails(YearMonth referenceMonth, MonthlyClosing closing,
+                                          long fromClientIdExclusive, long toClientIdInclusive) {
+        LocalDate monthStart = referenceMonth.atDay(1);
+        PageRequest page = PageRequest.of(0, chunkSize);
+
+        return calculatePages(referenceMonth, closing, fromClientIdExclusive, lastClientId -> clientRepository
+                .findActiveInMonthInIdRange(lastClientId, toClientIdInclusive, monthStart, page));
+    }
+
+    /**
+     * Calcula a faixa de clientes de uma partição reivindicada por owner e a conclui na mesma
+     * transação; se a partição foi reivindicada por outra réplica (lease expirado) ou descartada,
+     * a transação é desfeita sem gravar detalhes
+     */
+    void calculateClaimedPartition(Long partitionId, String owner) {
+        ClosingPartition partition = closingPartitionRepository.findById(partitionId)
+                .orElseThrow(() -> new RuntimeException("Closing partition not found: " + partitionId));
+        MonthlyClosing closing = monthlyClosingRepository.findById(partition.getMonthlyClosingId())
+                .orElseThrow(() -> new RuntimeException("Monthly closing not found: " + partition.getMonthlyClosingId()));
+
+        ClosingTotals totals = calculateClosingDetails(closing.getReferenceMonth(), closing,
+                partition.getFromClientId(), partition.getToClientId());
+
+        if (closingPartitionRepository.markDone(partitionId, owner, totals.getTotalClients(), LocalDateTime.now()) != 1) {
+            throw new RuntimeException("Closing partition " + partitionId + " is no longer owned by " + owner);
+        }
+    }
+
+    /**
+     * Calcula e grava os detalhes dos clientes dos parceiros na faixa (fromPartnerIdExclusive,
+     * toPartnerIdInclusive], usado pelos jobs de fechamento que fazem checkpoint por parceiro
+     */
+    ClosingTotals calculateClosingDetailsForPartners(YearMonth referenceMonth, MonthlyClosing closing,
+                                                     String fromPartnerIdExclusive, String toPartnerIdInclusive) {
+        LocalDate monthStart = referenceMonth.atDay(1);
+        PageRequest page = PageRequest.of(0, chunkSize);
+
+        return calculatePages(referenceMonth, closing, 0L, lastClientId -> clientRepository
+                .findActiveInMonthInPartnerRange(fromPartnerIdExclusive, toPartnerIdInclusive, lastClientId, monthStart, page));
+    }
+
+    /**
+     * Calcula e grava os detalhes apenas dos clientes ativos no mês que ainda não possuem detalhe
+     * no fechamento (usado pelo fechamento incremental após copiar os detalhes inalterados)
+     */
+    ClosingTotals calculateMissingClosingDetails(YearMonth referenceMonth, MonthlyClosing closing) {
+        LocalDate monthStart = referenceMonth.atDay(1);
+        PageRequest page = PageRequest.of(0, chunkSize);
+
+        return calculatePages(referenceMonth, closing, 0L, lastClientId -> clientRepository
+                .findActiveInMonthWithoutClosingDetail(lastClientId, monthStart, closing.getId(), page));
+    }
+
+    /**
+     * Calcula e grava os detalhes de vários meses em uma única leitura da carteira de clientes na
+     * faixa (fromClientIdExclusive, toClientIdInclusive]: cada página de clientes e a linha do tempo
+     * de tipos são carregadas uma vez e aplicadas a todos os fechamentos (ordenados por mês)
+     */
+    Map<YearMonth, ClosingTotals> calculateClosingDetailsForMonths(List<MonthlyClosing> closings,
+                                                                   long fromClientIdExclusive, long toClientIdInclusive) {
+        YearMonth firstMonth = closings.get(0).getReferenceMonth();
+        YearMonth lastMonth = closings.get(closings.size() - 1).getReferenceMonth();
+        PageRequest page = PageRequest.of(0, chunkSize);
+
+        Map<YearMonth, ClosingTotals> totalsByMonth = new TreeMap<>();
+        closings.forEach(closing -> totalsByMonth.put(closing.getReferenceMonth(), new ClosingTotals()));
+
+        long lastClientId = fromClientIdExclusive;
+        List<Client> clients;
+        do {
+            // Ativos no primeiro mês formam um superconjunto dos ativos nos meses seguintes
+            clients = clientRepository.findActiveInMonthInIdRange(lastClientId, toClientIdInclusive, firstMonth.atDay(1), page);
+            if (clients.isEmpty()) {
+                break;
+            }
+
+            ClientTypeTimeline timeline = clientTypeResolver.forClientIdRange(firstMonth, lastMonth,
+                    clients.get(0).getId(), clients.get(clients.size() - 1).getId());
+
+            List<ClosingDetail> chunk = new ArrayList<>();
+            for (MonthlyClosing closing : closings) {
+                YearMonth referenceMonth = closing.getReferenceMonth();
+                LocalDate monthStart = referenceMonth.atDay(1);
+                for (Client client : clients) {
+                    if (!isActiveInMonth(client, monthStart)) {
+                        continue;
+                    }
+                    try {
+                        ClosingDetail detail = calculateClientClosingDetail(client, referenceMonth, closing, timeline);
+                        chunk.add(detail);
+                        totalsByMonth.get(referenceMonth).add(detail);
+                    } catch (Exception e) {
+                        log.error("Erro ao calcular detalhe para cliente {} em {}: {}", client.getId(), referenceMonth, e.getMessage());
+                    }
+                }
+            }
+
+            lastClientId = clients.get(clients.size() - 1).getId();
+
+            batchInsertRepository.insertClosingDetails(chunk);
+            entityManager.flush();
+            entityManager.clear();
+        } while (clients.size() == chunkSize);
+
+        return totalsByMonth;
+    }
+
+    /**
+     * Mesma regra de ClientRepository.ACTIVE_IN_MONTH, aplicada em memória
+     */
+    private boolean isActiveInMonth(Client client, LocalDate monthStart) {
+        if (client.getStatus() == Client.Status.ACTIVE) {
+            return client.getStatusEffectiveFrom() == null || !client.getStatusEffectiveFrom().isBefore(monthStart);
+        }
+        return client.getStatus() == Client.Status.INACTIVE
+                && client.getStatusEffectiveFrom() != null && client.getStatusEffectiveFrom().isAfter(monthStart);
+    }
+
+    /**
+     * Recalcula um fechamento reaberto gravando apenas as diferenças em relação aos seus próprios
+     * detalhes (ver {@link ClosingReconciliation})
+     */
+    ClosingReconciliation reconcileClosingDetails(YearMonth referenceMonth, MonthlyClosing closing) {
+        ClosingReconciliation reconciliation = new ClosingReconciliation(batchInsertRepository);
+        diffClosingDetails(referenceMonth, closing, closing.getId(), reconciliation);
+        return reconciliation;
+    }
+
+    /**
+     * Simula o fechamento sem gravar e compara com os detalhes persistidos do fechamento
+     * persistedClosingId (nulo se não houver) por merge-join ordenado por clientId: cada chunk
+     * calculado é confrontado com a faixa correspondente de detalhes persistidos, lida em páginas
+     */
+    void diffClosingDetails(YearMonth referenceMonth, MonthlyClosing closing, Long persistedClosingId, ClosingDiff diff) {
+        LocalDate monthStart = referenceMonth.atDay(1);
+        PageRequest page = PageRequest.of(0, chunkSize);
+
+        long lastClientId = 0L;
+        List<Client> clients;
+        do {
+            clients = clientRepository.findActiveInMonthInIdRange(lastClientId, Long.MAX_VALUE, monthStart, page);
+
+            List<ClosingDetail> computed = new ArrayList<>(clients.size());
+            if (!clients.isEmpty()) {
+                ClientTypeTimeline timeline = clientTypeResolver.forClientIdRange(referenceMonth,
+                        clients.get(0).getId(), clients.get(clients.size() - 1).getId());
+                for (Client client : clients) {
+                    try {
+                        computed.add(calculateClientClosingDetail(client, referenceMonth, closing, timeline));
+                    } catch (Exception e) {
+                        log.error("Erro ao simular detalhe para cliente {}: {}", client.getId(), e.getMessage());
+                    }
+                }
+            }
+            entityManager.clear();
+
+            // O último chunk cobre também os clientes persistidos após o último calculado
+            long upperClientId = clients.size() == chunkSize ? clients.get(clients.size() - 1).getId() : Long.MAX_VALUE;
+            mergeWithPersisted(computed, persistedClosingId, lastClientId, upperClientId, diff);
+            diff.endChunk();
+            lastClientId = upperClientId;
+        } while (clients.size() == chunkSize);
+    }
+
+    private void mergeWithPersisted(List<ClosingDetail> computed, Long persistedClosingId,
+                                    long afterClientId, long upperClientId, ClosingDiff diff) {
+        int i = 0;
+        if (persistedClosingId != null) {
+            PageRequest page = PageRequest.of(0, chunkSize);
+            // Linhas do cliente afterClientId pertencem ao chunk anterior (afterId máximo as exclui)
+            long lastPersistedClientId = afterClientId;
+            long lastPersistedId = Long.MAX_VALUE;
+            List<ClosingDetail> persisted;
+            do {
+                persisted = closingDetailRepository.findPageInClientIdRange(persistedClosingId,
+                        lastPersistedClientId, lastPersistedId, upperClientId, page);
+                for (ClosingDetail previous : persisted) {
+                    while (i < computed.size() && computed.get(i).getClientId() < previous.getClientId()) {
+                        diff.added(computed.get(i++));
+                    }
+                    if (i < computed.size() && computed.get(i).getClientId().equals(previous.getClientId())) {
+                        diff.compare(computed.get(i++), previous);
+                    } else {
+                        diff.removed(previous);
+                    }
+                }
+                if (!persisted.isEmpty()) {
+                    ClosingDetail last = persisted.get(persisted.size() - 1);
+                    lastPersistedClientId = last.getClientId();
+                    lastPersistedId = last.getId();
+                }
+                entityManager.clear();
+            } while (persisted.size() == chunkSize);
+        }
+        while (i < computed.size()) {
+            diff.added(computed.get(i++));
+        }
+    }
+
+    private ClosingTotals calculatePages(YearMonth referenceMonth, MonthlyClosing closing,
+                                         long fromClientIdExclusive, LongFunction<List<Client>> nextPage) {
+        ClosingTotals totals = new ClosingTotals();
+
+        long lastClientId = fromClientIdExclusive;
+        List<Client> clients;
+        do {
+            // Buscar próxima página de clientes ativos no período
+            clients = nextPage.apply(lastClientId);
+            if (clients.isEmpty()) {
+                break;
+            }
+
+            // Histórico de tipos da faixa de ids do chunk em uma única consulta
+            ClientTypeTimeline timeline = clientTypeResolver.forClientIdRange(referenceMonth,
+                    clients.get(0).getId(), clients.get(clients.size() - 1).getId());
+
+            List<ClosingDetail> chunk = new ArrayList<>(clients.size());
+            for (Client client : clients) {
+                try {
+                    ClosingDetail detail = calculateClientClosingDetail(client, referenceMonth, closing, timeline);
+                    chunk.add(detail);
+                } catch (Exception e) {
+                    log.error("Erro ao calcular detalhe para cliente {}: {}", client.getId(), e.getMessage());
+                }
+            }
+
+            lastClientId = clients.get(clients.size() - 1).getId();
+
+            // Gravar o chunk em lote (JDBC) e liberar os clientes do contexto de persistência
+            batchInsertRepository.insertClosingDetails(chunk);
+            chunk.forEach(totals::add);
+            entityManager.flush();
+            entityManager.clear();
+
+            log.debug("Chunk do fechamento {} gravado: {} detalhes (último cliente {})",
+                    referenceMonth, chunk.size(), lastClientId);
+        } while (clients.size() == chunkSize);
+
+        return totals;
+    }
+
+    ClosingDetail calculateClientClosingDetail(Client client, YearMonth referenceMonth, MonthlyClosing closing,
+                                               ClientTypeTimeline timeline) {
+        LocalDate monthStart = referenceMonth.atDay(1);
+        LocalDate monthEnd = referenceMonth.atEndOfMonth();
+
+        // Determinar tipo de cliente efetivo no mês
+        Client.ClientType effectiveClientType = timeline.resolve(client, monthStart);
+        
+        // Buscar regra de comissão vigente (índice em memória)
+        CommissionMath.Terms terms = commissionRuleIndex.findTerms(effectiveClientType, monthStart);
+        if (terms == null) {
+            throw new RuntimeException("Commission rule not found for client type: " + effectiveClientType);
+        }
+
+        // Calcular comissão e bônus (simplificado - apenas bônus por faturamento individual) em centavos
+        long billingCents = CommissionMath.toCents(client.getMonthlyBilling());
+        long commissionCents = CommissionMath.commissionCents(billingCents, terms);
+        long bonusCents = CommissionMath.legacyBonusCents(billingCents);
+
+        // Determinar observações
+        String observations = generateObservations(client, monthStart, monthEnd);
+
+        return ClosingDetail.builder()
+                .monthlyClosing(closing)
+                .partnerId(client.getPartnerId())
+                .clientId(client.getId())
+                .clientName(client.getName())
+                .clientType(effectiveClientType)
+                .clientStatus(client.getStatus())
+                .clientActiveFrom(client.getCreatedAt() != null ? client.getCreatedAt().toLocalDate() : null)
+                .clientInactiveFrom(client.getStatusEffectiveFrom())
+                .monthlyRevenue(client.getMonthlyBilling())
+                .ruleType(effectiveClientType)
+                .commissionRate(terms.getRule().getPercentageCommission())
+                .commissionValue(CommissionMath.toAmount(commissionCents))
+                .bonusValue(CommissionMath.toAmount(bonusCents))
+                .totalValue(CommissionMath.toAmount(commissionCents + bonusCents))
+                .observations(observations)
+                .build();
+    }
+
+    private String generateObservations(Client client, LocalDate monthStart, LocalDate monthEnd) {
+        List<String> observations = new ArrayList<>();
+        
+        if (client.getStatusEffectiveFrom() != null && 
+            client.getStatusEffectiveFrom().isAfter(monthStart) && 
+            client.getStatusEffectiveFrom().isBefore(monthEnd)) {
+            observations.add(String.format("Cliente inativado em %s", client.getStatusEffectiveFrom()));
+        }
+        
+        return String.join("; ", observations);
+    }
+}
@@ -0,0 +1,247 @@
+package br.com.ecomercial.partnership.service;
+
+import br.com.ecomercial.partnership.dto.ClosingDiffEntry;
+import br.com.ecomercial.partnership.dto.ClosingDryRunSummary;
+import br.com.ecomercial.partnership.entity.ClosingDetail;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Acumulador da comparação entre detalhes simulados e persistidos de um fechamento.
+ * Cada diferença é repassada ao consumidor assim que encontrada; apenas contadores e as
+ * variações por parceiro afetado ficam em memória. Subclasses podem reagir às diferenças
+ * (ver {@link ClosingReconciliation}).
+ */
+class ClosingDiff {
+
+    private final Consumer<ClosingDiffEntry> diffConsumer;
+    private final Map<String, ClosingDryRunSummary.PartnerDelta> partnerDeltas = new TreeMap<>();
+
+    private long unchangedClients;
+    private long addedClients;
+    private long removedClients;
+    private long changedClients;
+    private BigDecimal commissionDelta = BigDecimal.ZERO;
+    private BigDecimal bonusDelta = BigDecimal.ZERO;
+    private BigDecimal totalDelta = BigDecimal.ZERO;
+
+    ClosingDiff(Consumer<ClosingDiffEntry> diffConsumer) {
+        this.diffConsumer = diffConsumer;
+    }
+
+    void added(ClosingDetail computed) {
+        addedClients++;
+        ClosingDryRunSummary.PartnerDelta delta = partnerDelta(computed.getPartnerId());
+        delta.setAddedClients(delta.getAddedClients() + 1);
+        applyDelta(delta, computed, 1);
+        onAdded(computed);
+
+        diffConsumer.accept(ClosingDiffEntry.builder()
+                .changeType(ClosingDiffEntry.ChangeType.ADDED)
+                .clientId(computed.getClientId())
+                .clientName(computed.getClientName())
+                .partnerId(computed.getPartnerId())
+                .clientType(computed.getClientType())
+                .newCommission(computed.getCommissionValue())
+                .newBonus(computed.getBonusValue())
+                .newTotal(computed.getTotalValue())
+                .build());
+    }
+
+    void removed(ClosingDetail persisted) {
+        removedClients++;
+        ClosingDryRunSummary.PartnerDelta delta = partnerDelta(persisted.getPartnerId());
+        delta.setRemovedClients(delta.getRemovedClients() + 1);
+        applyDelta(delta, persisted, -1);
+        onRemoved(persisted);
+
+        diffConsumer.accept(ClosingDiffEntry.builder()
+                .changeType(ClosingDiffEntry.ChangeType.REMOVED)
+                .clientId(persisted.getClientId())
+                .clientName(persisted.getClientName())
+                .partnerId(persisted.getPartnerId())
+                .previousPartnerId(persisted.getPartnerId())
+                .previousClientType(persisted.getClientType())
+                .previousCommission(persisted.getCommissionValue())
+                .previousBonus(persisted.getBonusValue())
+                .previousTotal(persisted.getTotalValue())
+                .build());
+    }
+
+    void compare(ClosingDetail computed, ClosingDetail persisted) {
+        List<String> changedFields = changedFields(computed, persisted);
+        if (changedFields.isEmpty()) {
+            unchangedClients++;
+            return;
+        }
+
+        changedClients++;
+        ClosingDryRunSummary.PartnerDelta newDelta = partnerDelta(computed.getPartnerId());
+        newDelta.setChangedClients(newDelta.getChangedClients() + 1);
+        applyDelta(newDelta, computed, 1);
+
+        ClosingDryRunSummary.PartnerDelta previousDelta = partnerDelta(persisted.getPartnerId());
+        if (previousDelta != newDelta) {
+            previousDelta.setChangedClients(previousDelta.getChangedClients() + 1);
+        }
+        applyDelta(previousDelta, persisted, -1);
+        onChanged(computed, persisted);
+
+        diffConsumer.accept(ClosingDiffEntry.builder()
+                .changeType(ClosingDiffEntry.ChangeType.CHANGED)
+                .clientId(computed.getClientId())
+                .clientName(computed.getClientName())
+                .partnerId(computed.getPartnerId())
+                .previousPartnerId(persisted.getPartnerId())
+                .clientType(computed.getClientType())
+                .previousClientType(persisted.getClientType())
+                .previousCommission(persisted.getCommissionValue())
+                .newCommission(computed.getCommissionValue())
+                .previousBonus(persisted.getBonusValue())
+                .newBonus(computed.getBonusValue())
+                .previousTotal(persisted.getTotalValue())
+                .newTotal(computed.getTotalValue())
+                .changedFields(changedFields)
+                .build());
+    }
+
+    /**
+     * Chamado ao final de cada chunk calculado, após a comparação com os persistidos
+     */
+    void endChunk() {
+    }
+
+    protected void onAdded(ClosingDetail computed) {
+    }
+
+    protected void onRemoved(ClosingDetail persisted) {
+    }
+
+    protected void onChanged(ClosingDetail computed, ClosingDetail persisted) {
+    }
+
+    long getAddedClients() {
+        return addedClients;
+    }
+
+    long getRemovedClients() {
+        return removedClients;
+    }
+
+    BigDecimal getCommissionDelta() {
+        return commissionDelta;
+    }
+
+    BigDecimal getBonusDelta() {
+        return bonusDelta;
+    }
+
+    BigDecimal getTotalDelta() {
+        return totalDelta;
+    }
+
+    ClosingDryRunSummary toSummary(String referenceMonth, Long persistedClosingId) {
+        return ClosingDryRunSummary.builder()
+                .referenceMonth(referenceMonth)
+                .persistedClosingId(persistedClosingId)
+                .unchangedClients(unchangedClients)
+                .addedClients(addedClients)
+                .removedClients(removedClients)
+                .changedClients(changedClients)
+                .commissionDelta(commissionDelta)
+                .bonusDelta(bonusDelta)
+                .totalDelta(totalDelta)
+                .partnerDeltas(new ArrayList<>(partnerDeltas.values()))
+                .build();
+    }
+
+    /**
+     * Todas as colunas gravadas do detalhe (exceto id e createdAt): qualquer diferença faz o
+     * refechamento atualizar a linha
+     */
+    private List<String> changedFields(ClosingDetail computed, ClosingDetail persisted) {
+        List<String> fields = new ArrayList<>();
+        if (!Objects.equals(computed.getPartnerId(), persisted.getPartnerId())) {
+            fields.add("partnerId");
+        }
+        if (!Objects.equals(computed.getClientName(), persisted.getClientName())) {
+            fields.add("clientName");
+        }
+        if (computed.getClientType() != persisted.getClientType()) {
+            fields.add("clientType");
+        }
+        if (computed.getClientStatus() != persisted.getClientStatus()) {
+            fields.add("clientStatus");
+        }
+        if (!Objects.equals(computed.getClientActiveFrom(), persisted.getClientActiveFrom())) {
+            fields.add("clientActiveFrom");
+        }
+        if (!Objects.equals(computed.getClientInactiveFrom(), persisted.getClientInactiveFrom())) {
+            fields.add("clientInactiveFrom");
+        }
+        if (!sameValue(computed.getMonthlyRevenue(), persisted.getMonthlyRevenue())) {
+            fields.add("monthlyRevenue");
+        }
+        if (!Objects.equals(computed.getRuleType(), persisted.getRuleType())) {
+            fields.add("ruleType");
+        }
+        if (!sameValue(computed.getCommissionRate(), persisted.getCommissionRate())) {
+            fields.add("commissionRate");
+        }
+        if (!sameValue(computed.getCommissionValue(), persisted.getCommissionValue())) {
+            fields.add("commissionValue");
+        }
+        if (!sameValue(computed.getBonusValue(), persisted.getBonusValue())) {
+            fields.add("bonusValue");
+        }
+        if (!sameValue(computed.getTotalValue(), persisted.getTotalValue())) {
+            fields.add("totalValue");
+        }
+        if (!Objects.equals(computed.getObservations(), persisted.getObservations())) {
+            fields.add("observations");
+        }
+        return fields;
+    }
+
+    private boolean sameValue(BigDecimal a, BigDecimal b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return a.compareTo(b) == 0;
+    }
+
+    private ClosingDryRunSummary.PartnerDelta partnerDelta(String partnerId) {
+        return partnerDeltas.computeIfAbsent(partnerId, id -> ClosingDryRunSummary.PartnerDelta.builder()
+                .partnerId(id)
+                .commissionDelta(BigDecimal.ZERO)
+                .bonusDelta(BigDecimal.ZERO)
+                .totalDelta(BigDecimal.ZERO)
+                .build());
+    }
+
+    private void applyDelta(ClosingDryRunSummary.PartnerDelta delta, ClosingDetail detail, int signum) {
+        BigDecimal commission = signed(detail.getCommissionValue(), signum);
+        BigDecimal bonus = signed(detail.getBonusValue(), signum);
+        BigDecimal total = signed(detail.getTotalValue(), signum);
+
+        delta.setCommissionDelta(delta.getCommissionDelta().add(commission));
+        delta.setBonusDelta(delta.getBonusDelta().add(bonus));
+        delta.setTotalDelta(delta.getTotalDelta().add(total));
+        commissionDelta = commissionDelta.add(commission);
+        bonusDelta = bonusDelta.add(bonus);
+        totalDelta = totalDelta.add(total);
+    }
+
+    private BigDecimal signed(BigDecimal value, int signum) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        return signum < 0 ? value.negate() : value;
+    }
+}
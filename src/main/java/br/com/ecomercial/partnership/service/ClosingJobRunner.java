@@ -0,0 +1,57 @@
+package br.com.ecomercial.partnership.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Executa os jobs de fechamento fora da thread da requisição, um chunk de parceiros por transação
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClosingJobRunner {
+
+    private final ClosingJobService closingJobService;
+    private final ClusteredClosingService clusteredClosingService;
+    private final ClosingLeaseService closingLeaseService;
+
+    /**
+     * Solicitação de execução (ou retomada) de um job de fechamento
+     */
+    public record JobRequested(String jobId) {
+    }
+
+    @Async("closingJobExecutor")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void run(JobRequested request) {
+        String jobId = request.jobId();
+
+        // Lease de posse do job, renovado pelo heartbeat: enquanto o nó que executa o job estiver
+        // vivo, retomadas disparadas por outras réplicas são ignoradas
+        String ownerLeaseKey = ClosingLeaseService.jobLeaseKey(jobId);
+        if (!closingLeaseService.tryAcquire(ownerLeaseKey)) {
+            log.debug("Job de fechamento {} em execução em outro nó", jobId);
+            return;
+        }
+
+        try {
+            // Lease do mês: o job não concorre com /run ou backfill do mesmo mês
+            clusteredClosingService.runExclusively(closingJobService.getReferenceMonth(jobId), () -> {
+                if (closingJobService.startJob(jobId)) {
+                    while (closingJobService.processNextChunk(jobId)) {
+                        // Progresso e checkpoint são gravados a cada chunk
+                    }
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.error("Erro no job de fechamento {}: {}", jobId, e.getMessage(), e);
+            closingJobService.markFailed(jobId, e.getMessage());
+        } finally {
+            closingLeaseService.release(ownerLeaseKey);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package br.com.ecomercial.partnership.service;
+
+import br.com.ecomercial.partnership.dto.ClosingJobResponse;
+import br.com.ecomercial.partnership.entity.ClosingJob;
+import br.com.ecomercial.partnership.entity.MonthlyClosing;
+import br.com.ecomercial.partnership.entity.User;
+import br.com.ecomercial.partnership.repository.ClientRepository;
+import br.com.ecomercial.partnership.repository.ClosingJobRepository;
+import br.com.ecomercial.partnership.repository.MonthlyClosingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Jobs de fechamento mensal executados em background. O progresso é gravado por chunk de
+ * parceiros na mesma transação dos detalhes, de modo que um job interrompido (restart do nó)
+ * é retomado a partir do último parceiro concluído.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ClosingJobService {
+
+    private static final Set<ClosingJob.Status> ACTIVE_STATUSES =
+            EnumSet.of(ClosingJob.Status.ACCEPTED, ClosingJob.Status.PROCESSING);
+
+    private final ClosingJobRepository closingJobRepository;
+    private final MonthlyClosingRepository monthlyClosingRepository;
+    private final ClientRepository clientRepository;
+    private final MonthlyClosingService monthlyClosingService;
+    private final ClosingCalculationService closingCalculationService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${closing.job.partners-per-chunk:50}")
+    private int partnersPerChunk;
+
+    /**
+     * Registra um job de fechamento e dispara sua execução após o commit
+     */
+    public ClosingJobResponse submit(YearMonth referenceMonth) {
+        if (closingJobRepository.existsByReferenceMonthAndStatusIn(referenceMonth, ACTIVE_STATUSES)) {
+            throw new RuntimeException("Closing job already running for month: " + referenceMonth);
+        }
+        if (monthlyClosingRepository.findByReferenceMonth(referenceMonth).map(MonthlyClosing::isCompleted).orElse(false)) {
+            throw new RuntimeException("Closing already exists for month: " + referenceMonth);
+        }
+
+        ClosingJob job = ClosingJob.builder()
+                .jobId(generateJobId(referenceMonth))
+                .referenceMonth(referenceMonth)
+                .status(ClosingJob.Status.ACCEPTED)
+                .requestedBy(getCurrentUsername())
+                .totalPartners((int) clientRepository.countPartnersWithActiveClients(referenceMonth.atDay(1)))
+                .processedPartners(0)
+                .processedClients(0L)
+                .message("Fechamento aceito para processamento")
+                .build();
+
+        ClosingJob savedJob = closingJobRepository.save(job);
+        log.info("Job de fechamento {} aceito para: {}", savedJob.getJobId(), referenceMonth);
+
+        // Executado pelo ClosingJobRunner somente após o commit do job
+        eventPublisher.publishEvent(new ClosingJobRunner.JobRequested(savedJob.getJobId()));
+        return mapToResponse(savedJob);
+    }
+
+    /**
+     * Obtém o progresso de um job de fechamento
+     */
+    @Transactional(readOnly = true)
+    public ClosingJobResponse getJob(String jobId) {
+        return mapToResponse(findJob(jobId));
+    }
+
+    @Transactional(readOnly = true)
+    public YearMonth getReferenceMonth(String jobId) {
+        return findJob(jobId).getReferenceMonth();
+    }
+
+    /**
+     * Prepara a execução (ou retomada) do job: persiste o cabeçalho do fechamento e, se não há
+     * checkpoint, descarta detalhes de uma execução anterior
+     */
+    public boolean startJob(String jobId) {
+        ClosingJob job = findJob(jobId);
+        if (job.isFinished()) {
+            return false;
+        }
+
+        // Retomada: mantém a marca d'água da leitura original dos parceiros já gravados
+        MonthlyClosing closing = monthlyClosingService.startClosing(job.getReferenceMonth(), job.getLastPartnerId() != null);
+        if (job.getLastPartnerId() == null) {
+            monthlyClosingService.discardClosingDetails(closing);
+            job.setStartedAt(LocalDateTime.now());
+        }
+
+        job.setMonthlyClosingId(closing.getId());
+        job.setStatus(ClosingJob.Status.PROCESSING);
+        job.setResumedAt(LocalDateTime.now());
+        job.setClientsAtResume(job.getProcessedClients());
+        job.setPartnersAtResume(job.getProcessedPartners());
+        job.setMessage(job.getLastPartnerId() == null ? "Fechamento em processamento"
+                : "Fechamento retomado após o parceiro " + job.getLastPartnerId());
+        closingJobRepository.save(job);
+        return true;
+    }
+
+    /**
+     * Processa o próximo chunk de parceiros e avança o checkpoint na mesma transação.
+     * Retorna false quando não há mais parceiros e o fechamento foi concluído.
+     */
+    public boolean processNextChunk(String jobId) {
+        ClosingJob job = findJob(jobId);
+        YearMonth referenceMonth = job.getReferenceMonth();
+        String lastPartnerId = job.getLastPartnerId() != null ? job.getLastPartnerId() : "";
+
+        MonthlyClosing closing = monthlyClosingRepository.findById(job.getMonthlyClosingId())
+                .orElseThrow(() -> new RuntimeException("Monthly closing not found: " + job.getMonthlyClosingId()));
+
+        List<String> partnerIds = clientRepository.findPartnerIdsWithActiveClientsAfter(lastPartnerId,
+                referenceMonth.atDay(1), PageRequest.of(0, partnersPerChunk));
+
+        if (partnerIds.isEmpty()) {
+            monthlyClosingService.completeClosingFromDetails(closing, job.getRequestedBy());
+
+            job.setStatus(ClosingJob.Status.COMPLETED);
+            job.setCompletedAt(LocalDateTime.now());
+            job.setMessage("Fechamento concluído com sucesso");
+            closingJobRepository.save(job);
+            log.info("Job de fechamento {} concluído para: {}", jobId, referenceMonth);
+            return false;
+        }
+
+        String toPartnerId = partnerIds.get(partnerIds.size() - 1);
+        ClosingTotals totals = closingCalculationService
+                .calculateClosingDetailsForPartners(referenceMonth, closing, lastPartnerId, toPartnerId);
+
+        // O contexto de persistência foi limpo pelo cálculo em chunks; recarregar o job
+        ClosingJob current = findJob(jobId);
+        current.setLastPartnerId(toPartnerId);
+        current.setProcessedPartners(current.getProcessedPartners() + partnerIds.size());
+        current.setProcessedClients(current.getProcessedClients() + totals.getTotalClients());
+        closingJobRepository.save(current);
+        return true;
+    }
+
+    /**
+     * Marca o job como falho; o fechamento permanece IN_PROGRESS e pode ser reexecutado
+     */
+    public void markFailed(String jobId, String message) {
+        ClosingJob job = findJob(jobId);
+        job.setStatus(ClosingJob.Status.FAILED);
+        job.setCompletedAt(LocalDateTime.now());
+        job.setMessage("Erro no fechamento: " + message);
+        closingJobRepository.save(job);
+    }
+
+    /**
+     * Retoma os jobs interrompidos pela parada de um nó. Roda periodicamente em todas as réplicas;
+     * o {@link ClosingJobRunner} só executa o job se obtiver o lease de posse, ou seja, se o nó que
+     * o executava parou de renovar o lease e ele expirou
+     */
+    @Scheduled(fixedDelayString = "${closing.cluster.resume-interval-ms:60000}")
+    public void resumeInterruptedJobs() {
+        for (ClosingJob job : closingJobRepository.findByStatusIn(ACTIVE_STATUSES)) {
+            log.debug("Verificando retomada do job de fechamento {} para: {}", job.getJobId(), job.getReferenceMonth());
+            eventPublisher.publishEvent(new ClosingJobRunner.JobRequested(job.getJobId()));
+        }
+    }
+
+    private ClosingJob findJob(String jobId) {
+        return closingJobRepository.findByJobId(jobId)
+                .orElseThrow(() -> new RuntimeException("Closing job not found: " + jobId));
+    }
+
+    private String generateJobId(YearMonth referenceMonth) {
+        return "closing-" + referenceMonth + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private String getCurrentUsername() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof User) {
+            return ((User) auth.getPrincipal()).getUsername();
+        }
+        return "system";
+    }
+
+    private ClosingJobResponse mapToResponse(ClosingJob job) {
+        Double rowsPerSecond = null;
+        Long etaSeconds = null;
+
+        if (job.getStatus() == ClosingJob.Status.PROCESSING && job.getResumedAt() != null) {
+            double elapsedSeconds = Duration.between(job.getResumedAt(), LocalDateTime.now()).toMillis() / 1000.0;
+            long clients = job.getProcessedClients() - defaultZero(job.getClientsAtResume());
+            int partners = job.getProcessedPartners() - (job.getPartnersAtResume() != null ? job.getPartnersAtResume() : 0);
+
+            if (elapsedSeconds > 0) {
+                rowsPerSecond = clients / elapsedSeconds;
+            }
+            if (partners > 0 && job.getTotalPartners() != null) {
+                int remainingPartners = Math.max(job.getTotalPartners() - job.getProcessedPartners(), 0);
+                etaSeconds = Math.round(elapsedSeconds / partners * remainingPartners);
+            }
+        }
+
+        return ClosingJobResponse.builder()
+                .jobId(job.getJobId())
+                .referenceMonth(job.getReferenceMonth().toString())
+                .status(job.getStatus())
+                .monthlyClosingId(job.getMonthlyClosingId())
+                .processedPartners(job.getProcessedPartners())
+                .totalPartners(job.getTotalPartners())
+                .processedClients(job.getProcessedClients())
+                .rowsPerSecond(rowsPerSecond)
+                .etaSeconds(etaSeconds)
+                .message(job.getMessage())
+                .startedAt(job.getStartedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+
+    private long defaultZero(Long value) {
+        return value != null ? value : 0L;
+    }
+}
@@ -0,0 +1,121 @@
+package br.com.ecomercial.partnership.service;
+
+import br.com.ecomercial.partnership.repository.ClosingLeaseRepository;
+import br.com.ecomercial.partnership.repository.ClosingPartitionRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.InetAddress;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Leases no banco que dão a um único nó a posse de um fechamento mensal. Os leases (e as
+ * partições reivindicadas) deste nó são renovados por heartbeat; se o nó para, expiram após
+ * closing.cluster.lease-ttl-seconds e podem ser assumidos por outra réplica.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClosingLeaseService {
+
+    private final ClosingLeaseRepository closingLeaseRepository;
+    private final ClosingPartitionRepository closingPartitionRepository;
+
+    private final Set<String> heldLeases = ConcurrentHashMap.newKeySet();
+
+    @Value("${closing.cluster.node-id:}")
+    private String configuredNodeId;
+
+    @Value("${closing.cluster.lease-ttl-seconds:120}")
+    private long leaseTtlSeconds;
+
+    private String nodeId;
+
+    @PostConstruct
+    void initNodeId() {
+        if (configuredNodeId != null && !configuredNodeId.isBlank()) {
+            nodeId = configuredNodeId;
+            return;
+        }
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        nodeId = host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    public static String closingLeaseKey(YearMonth referenceMonth) {
+        return "closing:" + referenceMonth;
+    }
+
+    /**
+     * Lease de posse de um job de fechamento (nó que o executa)
+     */
+    public static String jobLeaseKey(String jobId) {
+        return "closing-job:" + jobId;
+    }
+
+    /**
+     * Lease de posse de um backfill (nó que o executa)
+     */
+    public static String backfillLeaseKey(String backfillId) {
+        return "closing-backfill:" + backfillId;
+    }
+
+    /**
+     * Tenta obter o lease em transação própria, visível às demais réplicas ao retornar
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean tryAcquire(String leaseKey) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = leaseExpiry();
+
+        boolean acquired = closingLeaseRepository.insertIfAbsent(leaseKey, nodeId, now, expiresAt) == 1
+                || closingLeaseRepository.takeOver(leaseKey, nodeId, now, expiresAt) == 1;
+        if (acquired) {
+            heldLeases.add(leaseKey);
+            log.info("Lease {} obtido pelo nó {}", leaseKey, nodeId);
+        }
+        return acquired;
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void release(String leaseKey) {
+        heldLeases.remove(leaseKey);
+        closingLeaseRepository.release(leaseKey, nodeId);
+    }
+
+    /**
+     * Renova os leases e as partições reivindicadas por este nó
+     */
+    @Scheduled(fixedDelayString = "${closing.cluster.heartbeat-ms:30000}")
+    @Transactional
+    public void heartbeat() {
+        LocalDateTime expiresAt = leaseExpiry();
+        if (!heldLeases.isEmpty()) {
+            closingLeaseRepository.renew(new ArrayList<>(heldLeases), nodeId, expiresAt);
+        }
+        closingPartitionRepository.renewClaims(nodeId, expiresAt);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public LocalDateTime leaseExpiry() {
+        return LocalDateTime.now().plusSeconds(leaseTtlSeconds);
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.ecomercial.partnership.service;
+
+import br.com.ecomercial.partnership.repository.ClosingPartitionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Reivindica e processa partições de fechamento de qualquer réplica. Roda periodicamente em todos
+ * os nós e também no nó coordenador enquanto aguarda a conclusão do fechamento. O pool de
+ * agendamento (spring.task.scheduling.pool.size) deve ter mais de um thread, para que o heartbeat
+ * de {@link ClosingLeaseService} continue rodando enquanto uma partição é processada.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClosingPartitionWorker {
+
+    private static final int CLAIM_CANDIDATES = 10;
+
+    private final ClosingPartitionRepository closingPartitionRepository;
+    private final ClosingCalculationService closingCalculationService;
+    private final ClosingLeaseService closingLeaseService;
+
+    @Value("${closing.cluster.worker-enabled:true}")
+    private boolean workerEnabled;
+
+    @Scheduled(fixedDelayString = "${closing.cluster.poll-interval-ms:5000}")
+    public void workAvailablePartitions() {
+        if (!workerEnabled) {
+            return;
+        }
+        while (claimAndProcessNext()) {
+            // Continuar enquanto houver partições disponíveis
+        }
+    }
+
+    /**
+     * Reivindica uma partição disponível e a processa; false se não havia partição a reivindicar
+     * ou se o processamento falhou (a partição volta a ficar disponível quando o lease expirar)
+     */
+    public boolean claimAndProcessNext() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> candidates = closingPartitionRepository.findClaimableIds(now, PageRequest.of(0, CLAIM_CANDIDATES));
+
+        for (Long partitionId : candidates) {
+            if (closingPartitionRepository.claim(partitionId, closingLeaseService.getNodeId(), now, closingLeaseService.leaseExpiry()) == 1) {
+                try {
+                    closingCalculationService.calculateClaimedPartition(partitionId, closingLeaseService.getNodeId());
+                    return true;
+                } catch (Exception e) {
+                    log.error("Erro ao processar partição de fechamento {}: {}", partitionId, e.getMessage());
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,60 @@
+package br.com.ecomercial.partnership.service;
+
+import br.com.ecomercial.partnership.entity.ClosingDetail;
+import br.com.ecomercial.partnership.repository.BatchInsertRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Refechamento de um fechamento reaberto: compara os detalhes recalculados com os gravados no
+ * próprio fechamento e grava apenas as diferenças (INSERT dos novos, UPDATE dos alterados e
+ * DELETE dos removidos), em lote ao final de cada chunk. Os totais do fechamento são então
+ * reagregados dos detalhes resultantes, para não perpetuar divergências do cabeçalho anterior.
+ */
+class ClosingReconciliation extends ClosingDiff {
+
+    private final BatchInsertRepository batchInsertRepository;
+
+    private final List<ClosingDetail> inserts = new ArrayList<>();
+    private final List<ClosingDetail> updates = new ArrayList<>();
+    private final List<Long> deletes = new ArrayList<>();
+    private long updatedClients;
+
+    ClosingReconciliation(BatchInsertRepository batchInsertRepository) {
+        super(entry -> {
+        });
+        this.batchInsertRepository = batchInsertRepository;
+    }
+
+    @Override
+    protected void onAdded(ClosingDetail computed) {
+        inserts.add(computed);
+    }
+
+    @Override
+    protected void onRemoved(ClosingDetail persisted) {
+        deletes.add(persisted.getId());
+    }
+
+    @Override
+    protected void onChanged(ClosingDetail computed, ClosingDetail persisted) {
+        computed.setId(persisted.getId());
+        updates.add(computed);
+        updatedClients++;
+    }
+
+    @Override
+    void endChunk() {
+        batchInsertRepository.insertClosingDetails(inserts);
+        batchInsertRepository.updateClosingDetails(updates);
+        batchInsertRepository.deleteClosingDetails(deletes);
+        inserts.clear();
+        updates.clear();
+        deletes.clear();
+    }
+
+    long getUpdatedClients() {
+        return updatedClients;
+    }
+}
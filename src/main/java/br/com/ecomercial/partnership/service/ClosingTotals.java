@@ -0,0 +1,46 @@
+package br.com.ecomercial.partnership.service;
+
+import br.com.ecomercial.partnership.entity.ClosingDetail;
+import br.com.ecomercial.partnership.entity.MonthlyClosing;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Acumulador dos totais de um fechamento, alimentado chunk a chunk sem reter os detalhes
+ */
+@Getter
+class ClosingTotals {
+
+    private int totalClients;
+    private BigDecimal totalCommission = BigDecimal.ZERO;
+    private BigDecimal totalBonus = BigDecimal.ZERO;
+    private BigDecimal totalPayout = BigDecimal.ZERO;
+    private final Set<String> partnerIds = new HashSet<>();
+
+    void add(ClosingDetail detail) {
+        totalClients++;
+        totalCommission = totalCommission.add(detail.getCommissionValue());
+        totalBonus = totalBonus.add(detail.getBonusValue());
+        totalPayout = totalPayout.add(detail.getTotalValue());
+        partnerIds.add(detail.getPartnerId());
+    }
+
+    void merge(ClosingTotals other) {
+        totalClients += other.totalClients;
+        totalCommission = totalCommission.add(other.totalCommission);
+        totalBonus = totalBonus.add(other.totalBonus);
+        totalPayout = totalPayout.add(other.totalPayout);
+        partnerIds.addAll(other.partnerIds);
+    }
+
+    void applyTo(MonthlyClosing closing) {
+        closing.setTotalClients(totalClients);
+        closing.setTotalCommission(totalCommission);
+        closing.setTotalBonus(totalBonus);
+        closing.setTotalPayout(totalPayout);
+        closing.setTotalPartners(partnerIds.size());
+    }
+}
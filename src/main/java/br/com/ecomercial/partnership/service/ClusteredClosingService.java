@@ -0,0 +1,176 @@
+package br.com.ecomercial.partnership.service;
+
+import br.com.ecomercial.partnership.dto.MonthlyClosingResponse;
+import br.com.ecomercial.partnership.entity.ClosingPartition;
+import br.com.ecomercial.partnership.entity.MonthlyClosing;
+import br.com.ecomercial.partnership.entity.User;
+import br.com.ecomercial.partnership.repository.ClientRepository;
+import br.com.ecomercial.partnership.repository.ClosingPartitionRepository;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Fechamento mensal distribuído entre as réplicas.
+ *
+ * O nó que recebe a requisição obtém o lease do mês (um único coordenador por mês), grava as
+ * partições da carteira de clientes e as processa junto com o {@link ClosingPartitionWorker} das
+ * demais réplicas. Partições de nós que pararam são reivindicadas novamente quando o lease expira.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClusteredClosingService {
+
+    private final MonthlyClosingService monthlyClosingService;
+    private final ClosingLeaseService closingLeaseService;
+    private final ClosingPartitionWorker closingPartitionWorker;
+    private final ClosingPartitionRepository closingPartitionRepository;
+    private final ClientRepository clientRepository;
+    private final MetricsService metricsService;
+
+    @Value("${closing.cluster.partitions:64}")
+    private int partitions;
+
+    @Value("${closing.cluster.poll-interval-ms:5000}")
+    private long pollIntervalMs;
+
+    @Value("${closing.cluster.max-wait-minutes:120}")
+    private long maxWaitMinutes;
+
+    /**
+     * Executa o fechamento mensal com partições distribuídas entre as réplicas
+     */
+    public MonthlyClosingResponse runMonthlyClosing(YearMonth referenceMonth) {
+        return runExclusively(referenceMonth, () -> runPartitionedClosing(referenceMonth));
+    }
+
+    /**
+     * Executa o fechamento somente se este nó obtiver o lease do mês, evitando execuções
+     * simultâneas do mesmo mês em réplicas diferentes
+     */
+    public <T> T runExclusively(YearMonth referenceMonth, Supplier<T> closingRun) {
+        return runExclusively(List.of(referenceMonth), closingRun);
+    }
+
+    /**
+     * Executa somente se este nó obtiver o lease de todos os meses (jobs e backfills); os leases
+     * já obtidos são liberados se algum mês estiver em execução em outro lugar
+     */
+    public <T> T runExclusively(List<YearMonth> referenceMonths, Supplier<T> closingRun) {
+        List<String> acquired = new ArrayList<>();
+        try {
+            for (YearMonth referenceMonth : referenceMonths) {
+                String leaseKey = ClosingLeaseService.closingLeaseKey(referenceMonth);
+                if (!closingLeaseService.tryAcquire(leaseKey)) {
+                    throw new RuntimeException("Closing already running for month: " + referenceMonth);
+                }
+                acquired.add(leaseKey);
+            }
+            return closingRun.get();
+        } finally {
+            acquired.forEach(closingLeaseService::release);
+        }
+    }
+
+    private MonthlyClosingResponse runPartitionedClosing(YearMonth referenceMonth) {
+        log.info("Iniciando fechamento mensal distribuído para: {} ({} partições, nó {})",
+                referenceMonth, partitions, closingLeaseService.getNodeId());
+
+        // Incrementar métrica de execução de fechamento
+        metricsService.incrementClosingExecution(referenceMonth);
+
+        // Iniciar timer de execução
+        Timer.Sample sample = metricsService.startClosingTimer();
+
+        MonthlyClosing closing = null;
+        try {
+            closing = monthlyClosingService.startClosing(referenceMonth);
+            monthlyClosingService.discardClosingDetails(closing);
+            createPartitions(closing);
+
+            awaitPartitions(closing);
+
+            MonthlyClosing savedClosing = monthlyClosingService.completeClosingFromDetails(closing, getCurrentUsername());
+            closingPartitionRepository.deleteByMonthlyClosingId(closing.getId());
+
+            log.info("Fechamento mensal distribuído concluído para: {} com {} detalhes",
+                    referenceMonth, savedClosing.getTotalClients());
+
+            // Incrementar métrica de sucesso e parar timer
+            metricsService.incrementClosingSuccess(referenceMonth);
+            metricsService.stopClosingTimer(sample);
+
+            return monthlyClosingService.toResponse(savedClosing);
+
+        } catch (Exception e) {
+            // Partições removidas primeiro: réplicas em andamento não conseguem concluí-las
+            if (closing != null) {
+                closingPartitionRepository.deleteByMonthlyClosingId(closing.getId());
+                monthlyClosingService.discardClosingDetails(closing);
+            }
+
+            // Incrementar métrica de falha e parar timer
+            metricsService.incrementClosingFailure(referenceMonth, e.getMessage());
+            metricsService.stopClosingTimer(sample);
+            throw e;
+        }
+    }
+
+    private void createPartitions(MonthlyClosing closing) {
+        closingPartitionRepository.deleteByMonthlyClosingId(closing.getId());
+
+        List<long[]> ranges = ParallelClosingService.partitionRanges(clientRepository.findMaxId(), partitions);
+        List<ClosingPartition> closingPartitions = new ArrayList<>(ranges.size());
+        for (int i = 0; i < ranges.size(); i++) {
+            closingPartitions.add(ClosingPartition.builder()
+                    .monthlyClosingId(closing.getId())
+                    .partitionIndex(i)
+                    .fromClientId(ranges.get(i)[0])
+                    .toClientId(ranges.get(i)[1])
+                    .status(ClosingPartition.Status.PENDING)
+                    .processedClients(0L)
+                    .build());
+        }
+        closingPartitionRepository.saveAll(closingPartitions);
+    }
+
+    /**
+     * Processa partições junto com as demais réplicas até que todas estejam concluídas
+     */
+    private void awaitPartitions(MonthlyClosing closing) {
+        long deadline = System.nanoTime() + Duration.ofMinutes(maxWaitMinutes).toNanos();
+
+        while (closingPartitionRepository.countByMonthlyClosingIdAndStatusNot(closing.getId(), ClosingPartition.Status.DONE) > 0) {
+            if (System.nanoTime() > deadline) {
+                throw new RuntimeException("Timed out waiting for closing partitions of month: " + closing.getReferenceMonth());
+            }
+            if (!closingPartitionWorker.claimAndProcessNext()) {
+                try {
+                    Thread.sleep(pollIntervalMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while waiting for closing partitions", e);
+                }
+            }
+        }
+    }
+
+    private String getCurrentUsername() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof User) {
+            return ((User) auth.getPrincipal()).getUsername();
+        }
+        return "system";
+    }
+}
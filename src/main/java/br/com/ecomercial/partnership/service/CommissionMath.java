@@ -0,0 +1,135 @@
+package br.com.ecomercial.partnership.service;
+
+import br.com.ecomercial.partnership.entity.CommissionRule;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Cálculo de comissão em ponto fixo: valores monetários em centavos (escala 2) e percentuais em
+ * unidades de 0,0001 (escala 4, a mesma de commission_rules.percentage_commission), ambos em long.
+ *
+ * Os resultados são arredondados para centavos com HALF_UP, que é o valor que o caminho em
+ * BigDecimal grava nas colunas DECIMAL(15,2). A conversão de/para BigDecimal fica restrita às
+ * bordas (entidades e DTOs) por meio de {@link #toCents(BigDecimal)} e {@link #toAmount(long)}.
+ */
+public final class CommissionMath {
+
+    /** Faturamento acima do qual se aplica o bônus individual legado (10.000,00) */
+    public static final long LEGACY_BONUS_THRESHOLD_CENTS = 1_000_000L;
+
+    /** Percentual do bônus individual legado (0,0200) */
+    public static final long LEGACY_BONUS_RATE_UNITS = 200L;
+
+    private static final int AMOUNT_SCALE = 2;
+    private static final int RATE_SCALE = 4;
+    private static final long RATE_ONE = 10_000L;
+
+    private CommissionMath() {
+    }
+
+    /**
+     * Comissão da regra para o faturamento: zero fora dos limites mínimo/máximo, senão
+     * fixa + faturamento × percentual
+     */
+    public static long commissionCents(long billingCents, Terms terms) {
+        if (billingCents < terms.minBillingCents || billingCents > terms.maxBillingCents) {
+            return 0L;
+        }
+        return Math.addExact(terms.fixedCents, percentOf(billingCents, terms.rateUnits));
+    }
+
+    /**
+     * Bônus individual legado: 2% do faturamento acima de 10.000,00
+     */
+    public static long legacyBonusCents(long billingCents) {
+        if (billingCents > LEGACY_BONUS_THRESHOLD_CENTS) {
+            return percentOf(billingCents, LEGACY_BONUS_RATE_UNITS);
+        }
+        return 0L;
+    }
+
+    /**
+     * Valor × percentual (escala 4), arredondado para centavos com HALF_UP
+     */
+    public static long percentOf(long cents, long rateUnits) {
+        return divideHalfUp(Math.multiplyExact(cents, rateUnits), RATE_ONE);
+    }
+
+    /**
+     * Divisão inteira com arredondamento HALF_UP (metade se afasta de zero, como em BigDecimal)
+     */
+    static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) * 2 >= Math.abs(divisor)) {
+            quotient += (dividend < 0) == (divisor < 0) ? 1 : -1;
+        }
+        return quotient;
+    }
+
+    /**
+     * Valor monetário em centavos (null vale zero)
+     */
+    public static long toCents(BigDecimal amount) {
+        return toScaledLong(amount, AMOUNT_SCALE, 0L);
+    }
+
+    /**
+     * Percentual em unidades de 0,0001 (null vale zero)
+     */
+    public static long toRateUnits(BigDecimal rate) {
+        return toScaledLong(rate, RATE_SCALE, 0L);
+    }
+
+    /**
+     * Centavos como BigDecimal de escala 2, para entidades e DTOs
+     */
+    public static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, AMOUNT_SCALE);
+    }
+
+    private static long toScaledLong(BigDecimal value, int scale, long nullValue) {
+        if (value == null) {
+            return nullValue;
+        }
+        return value.setScale(scale, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Termos de uma regra de comissão já convertidos para ponto fixo. Limites ausentes viram
+     * Long.MIN_VALUE / Long.MAX_VALUE, de modo que a verificação não precisa tratar null.
+     */
+    public static final class Terms {
+
+        private final CommissionRule rule;
+        private final long fixedCents;
+        private final long rateUnits;
+        private final long minBillingCents;
+        private final long maxBillingCents;
+
+        private Terms(CommissionRule rule) {
+            this.rule = rule;
+            this.fixedCents = toCents(rule.getFixedCommission());
+            this.rateUnits = toRateUnits(rule.getPercentageCommission());
+            this.minBillingCents = toScaledLong(rule.getMinBillingThreshold(), AMOUNT_SCALE, Long.MIN_VALUE);
+            this.maxBillingCents = toScaledLong(rule.getMaxBillingThreshold(), AMOUNT_SCALE, Long.MAX_VALUE);
+        }
+
+        public static Terms of(CommissionRule rule) {
+            return new Terms(rule);
+        }
+
+        public CommissionRule getRule() {
+            return rule;
+        }
+
+        public long getFixedCents() {
+            return fixedCents;
+        }
+
+        public long getRateUnits() {
+            return rateUnits;
+        }
+    }
+}
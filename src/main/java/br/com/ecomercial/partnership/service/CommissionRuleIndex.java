@@ -0,0 +1,178 @@
+package br.com.ecomercial.partnership.service;
+
+import br.com.ecomercial.partnership.entity.Client;
+import br.com.ecomercial.partnership.entity.CommissionRule;
+import br.com.ecomercial.partnership.repository.CommissionRuleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Índice em memória das regras de comissão ACTIVE, organizado por tipo de cliente em intervalos
+ * de vigência ordenados por effectiveFrom.
+ *
+ * Responde "regra do tipo X na data D" por busca binária, sem consultar o banco nem alocar.
+ * O snapshot é imutável e substituído atomicamente quando o {@link CommissionRuleService}
+ * altera uma regra, ou quando fica mais antigo que commission-rule-index.max-age-seconds
+ * (alterações feitas por outras réplicas).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CommissionRuleIndex {
+
+    private final CommissionRuleRepository commissionRuleRepository;
+
+    @Value("${commission-rule-index.max-age-seconds:60}")
+    private long maxAgeSeconds;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Regra vigente para o tipo de cliente na data, ou null se não houver
+     */
+    public CommissionRule findRule(Client.ClientType clientType, LocalDate date) {
+        return currentSnapshot().find(clientType, date.toEpochDay());
+    }
+
+    /**
+     * Termos em ponto fixo da regra vigente para o tipo de cliente na data, ou null se não houver
+     */
+    public CommissionMath.Terms findTerms(Client.ClientType clientType, LocalDate date) {
+        return currentSnapshot().findTerms(clientType, date.toEpochDay());
+    }
+
+    /**
+     * Equivalente em memória a CommissionRuleRepository.findActiveRuleForClientTypeAndDate
+     */
+    public Optional<CommissionRule> findActiveRuleForClientTypeAndDate(Client.ClientType clientType, LocalDate date) {
+        return Optional.ofNullable(findRule(clientType, date));
+    }
+
+    /**
+     * Recarrega o índice após o commit da transação corrente (ou imediatamente, fora de transação)
+     */
+    public void rebuildAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rebuild();
+                }
+            });
+        } else {
+            rebuild();
+        }
+    }
+
+    /**
+     * Recarrega todas as regras ACTIVE e substitui o snapshot atual
+     */
+    public synchronized void rebuild() {
+        List<CommissionRule> activeRules = commissionRuleRepository.findByStatus(CommissionRule.Status.ACTIVE);
+        snapshot = new Snapshot(activeRules, System.nanoTime());
+        log.debug("Índice de regras de comissão recarregado com {} regras ativas", activeRules.size());
+    }
+
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null || System.nanoTime() - current.loadedAt > TimeUnit.SECONDS.toNanos(maxAgeSeconds)) {
+            synchronized (this) {
+                if (snapshot == current) {
+                    rebuild();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Intervalos de vigência por tipo (indexados pelo ordinal do enum), ordenados por effectiveFrom
+     */
+    private static final class Snapshot {
+
+        private final long[][] fromDays;
+        private final long[][] toDays;
+        private final CommissionRule[][] rules;
+        private final CommissionMath.Terms[][] terms;
+        private final long loadedAt;
+
+        private Snapshot(List<CommissionRule> activeRules, long loadedAt) {
+            int types = Client.ClientType.values().length;
+            this.fromDays = new long[types][];
+            this.toDays = new long[types][];
+            this.rules = new CommissionRule[types][];
+            this.terms = new CommissionMath.Terms[types][];
+            this.loadedAt = loadedAt;
+
+            for (Client.ClientType type : Client.ClientType.values()) {
+                List<CommissionRule> typeRules = new ArrayList<>();
+                for (CommissionRule rule : activeRules) {
+                    if (rule.getClientType() == type) {
+                        typeRules.add(rule);
+                    }
+                }
+                typeRules.sort(Comparator.comparing(CommissionRule::getEffectiveFrom));
+
+                int i = type.ordinal();
+                fromDays[i] = new long[typeRules.size()];
+                toDays[i] = new long[typeRules.size()];
+                rules[i] = typeRules.toArray(new CommissionRule[0]);
+                terms[i] = new CommissionMath.Terms[typeRules.size()];
+                for (int j = 0; j < typeRules.size(); j++) {
+                    CommissionRule rule = typeRules.get(j);
+                    fromDays[i][j] = rule.getEffectiveFrom().toEpochDay();
+                    toDays[i][j] = rule.getEffectiveTo() != null ? rule.getEffectiveTo().toEpochDay() : Long.MAX_VALUE;
+                    terms[i][j] = CommissionMath.Terms.of(rule);
+                }
+            }
+        }
+
+        private CommissionRule find(Client.ClientType clientType, long day) {
+            int j = indexOf(clientType.ordinal(), day);
+            return j >= 0 ? rules[clientType.ordinal()][j] : null;
+        }
+
+        private CommissionMath.Terms findTerms(Client.ClientType clientType, long day) {
+            int j = indexOf(clientType.ordinal(), day);
+            return j >= 0 ? terms[clientType.ordinal()][j] : null;
+        }
+
+        private int indexOf(int i, long day) {
+            long[] from = fromDays[i];
+
+            // Última regra com effectiveFrom <= dia
+            int low = 0;
+            int high = from.length - 1;
+            int candidate = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (from[mid] <= day) {
+                    candidate = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+
+            // Mesma precedência da consulta: a vigente com effectiveFrom mais recente
+            for (int j = candidate; j >= 0; j--) {
+                if (toDays[i][j] >= day) {
+                    return j;
+                }
+            }
+            return -1;
+        }
+    }
+}
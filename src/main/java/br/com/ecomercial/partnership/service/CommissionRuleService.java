@@ -6,6 +6,7 @@ import br.com.ecomercial.partnership.entity.Client;
 import br.com.ecomercial.partnership.entity.CommissionRule;
 import br.com.ecomercial.partnership.repository.CommissionRuleRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,6 +21,8 @@ public class CommissionRuleService {
     
     private final CommissionRuleRepository commissionRuleRepository;
     private final MetricsService metricsService;
+    private final CommissionRuleIndex commissionRuleIndex;
+    private final ApplicationEventPublisher eventPublisher;
     
     public CommissionRuleResponse createCommissionRule(CommissionRuleRequest request) {
         // Validar se a data de vigência é no futuro
@@ -45,6 +48,8 @@ public class CommissionRuleService {
                 .build();
         
         CommissionRule savedRule = commissionRuleRepository.save(rule);
+        commissionRuleIndex.rebuildAfterCommit();
+        eventPublisher.publishEvent(PartnerDataChanged.allPartners());
         
         // Incrementar métrica de criação de regra de comissão
         metricsService.incrementCommissionRuleCreated();
@@ -107,6 +112,8 @@ public class CommissionRuleService {
         rule.setMaxBillingThreshold(request.getMaxBillingThreshold());
         
         CommissionRule updatedRule = commissionRuleRepository.save(rule);
+        commissionRuleIndex.rebuildAfterCommit();
+        eventPublisher.publishEvent(PartnerDataChanged.allPartners());
         
         // Incrementar métrica de atualização de regra de comissão
         metricsService.incrementCommissionRuleUpdated();
@@ -120,6 +127,8 @@ public class CommissionRuleService {
         
         rule.setStatus(CommissionRule.Status.INACTIVE);
         commissionRuleRepository.save(rule);
+        commissionRuleIndex.rebuildAfterCommit();
+        eventPublisher.publishEvent(PartnerDataChanged.allPartners());
     }
     
     private CommissionRuleResponse mapToResponse(CommissionRule rule) {
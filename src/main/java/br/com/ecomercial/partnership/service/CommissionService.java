@@ -1,9 +1,16 @@
 package br.com.ecomercial.partnership.service;
 
+import br.com.ecomercial.partnership.dto.CommissionBulkTransitionRequest;
+import br.com.ecomercial.partnership.dto.CommissionBulkTransitionResponse;
+import br.com.ecomercial.partnership.dto.CommissionPageResponse;
 import br.com.ecomercial.partnership.dto.CommissionResponse;
 import br.com.ecomercial.partnership.entity.*;
 import br.com.ecomercial.partnership.repository.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -11,39 +18,64 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class CommissionService {
+
+    private static final int MAX_PAGE_SIZE = 1000;
     
     private final CommissionRepository commissionRepository;
     private final ClientRepository clientRepository;
-    private final CommissionRuleRepository commissionRuleRepository;
-    private final PartnerRepository partnerRepository;
+    private final CommissionRuleIndex commissionRuleIndex;
     private final BonusCalculationService bonusCalculationService;
+    private final BatchInsertRepository batchInsertRepository;
+    private final AuditService auditService;
+    private final PartnerMonthTotalsService partnerMonthTotalsService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
     
     public void calculateCommissionsForMonth(YearMonth referenceMonth) {
         List<Client> activeClients = clientRepository.findByStatus(Client.Status.ACTIVE);
+        List<Commission> newCommissions = new ArrayList<>();
+
+        // Comissões já existentes no mês, carregadas em uma única consulta
+        Set<String> existingKeys = new HashSet<>();
+        for (Object[] key : commissionRepository.findPartnerClientKeysByReferenceMonth(referenceMonth)) {
+            existingKeys.add(commissionKey((String) key[0], (Long) key[1]));
+        }
+
+        // Regras vigentes no mês, resolvidas em memória uma vez por tipo de cliente
+        Map<Client.ClientType, CommissionMath.Terms> termsByType = new EnumMap<>(Client.ClientType.class);
         
         for (Client client : activeClients) {
             // Check if commission already exists for this month
-            if (commissionRepository.findByPartnerIdAndClientIdAndReferenceMonth(
-                    client.getPartnerId(), client.getId(), referenceMonth).isPresent()) {
+            if (existingKeys.contains(commissionKey(client.getPartnerId(), client.getId()))) {
                 continue;
             }
             
             // Get commission rule for client type
-            CommissionRule rule = commissionRuleRepository
-                    .findByClientTypeAndStatus(client.getClientType(), CommissionRule.Status.ACTIVE)
-                    .orElseThrow(() -> new RuntimeException("Commission rule not found for client type: " + client.getClientType()));
+            CommissionMath.Terms terms = termsByType.computeIfAbsent(client.getClientType(),
+                    type -> commissionRuleIndex.findTerms(type, referenceMonth.atDay(1)));
+            if (terms == null) {
+                throw new RuntimeException("Commission rule not found for client type: " + client.getClientType());
+            }
             
-            // Calculate commission
-            BigDecimal commissionValue = calculateCommissionValue(client, rule);
-            BigDecimal bonusValue = calculateBonusValue(client, rule);
-            BigDecimal totalValue = commissionValue.add(bonusValue != null ? bonusValue : BigDecimal.ZERO);
+            // Calculate commission and legacy bonus in cents
+            long billingCents = CommissionMath.toCents(client.getMonthlyBilling());
+            long commissionCents = CommissionMath.commissionCents(billingCents, terms);
+            long bonusCents = CommissionMath.legacyBonusCents(billingCents);
             
             // Create commission record
             Commission commission = Commission.builder()
@@ -51,14 +83,22 @@ public class CommissionService {
                     .clientId(client.getId())
                     .referenceMonth(referenceMonth)
                     .clientBilling(client.getMonthlyBilling() != null ? client.getMonthlyBilling() : BigDecimal.ZERO)
-                    .commissionValue(commissionValue)
-                    .bonusValue(bonusValue)
-                    .totalValue(totalValue)
+                    .commissionValue(CommissionMath.toAmount(commissionCents))
+                    .bonusValue(CommissionMath.toAmount(bonusCents))
+                    .totalValue(CommissionMath.toAmount(commissionCents + bonusCents))
                     .status(Commission.Status.PENDING)
                     .build();
             
-            commissionRepository.save(commission);
+            newCommissions.add(commission);
         }
+        
+        // Gravar as novas comissões em lote (INSERT ... ON DUPLICATE KEY UPDATE)
+        batchInsertRepository.upsertCommissions(newCommissions);
+        partnerMonthTotalsService.refreshCommissionTotals(referenceMonth, null);
+    }
+
+    private static String commissionKey(String partnerId, Long clientId) {
+        return partnerId + '|' + clientId;
     }
     
     @Transactional(readOnly = true)
@@ -108,6 +148,65 @@ public class CommissionService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Lista comissões paginadas por cursor (id), com filtros opcionais de parceiro, status e mês.
+     * Parceiros só enxergam as próprias comissões.
+     */
+    @Transactional(readOnly = true)
+    public CommissionPageResponse getCommissionsPage(String partnerId, Commission.Status status, YearMonth referenceMonth,
+                                                     Long afterId, int size) {
+        String scopedPartnerId = resolvePartnerScope(partnerId);
+
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        List<Commission> commissions = commissionRepository.findPageAfter(afterId != null ? afterId : 0L,
+                scopedPartnerId, status, referenceMonth, PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = commissions.size() > pageSize;
+        List<Commission> page = hasMore ? commissions.subList(0, pageSize) : commissions;
+
+        return CommissionPageResponse.builder()
+                .items(page.stream()
+                        .map(this::mapToResponse)
+                        .collect(Collectors.toList()))
+                .hasMore(hasMore)
+                .nextId(page.isEmpty() ? null : page.get(page.size() - 1).getId())
+                .build();
+    }
+
+    /**
+     * Percorre as comissões filtradas em ordem de id sem carregá-las todas em memória,
+     * entregando cada uma ao consumidor (exportação NDJSON)
+     */
+    @Transactional(readOnly = true)
+    public long streamCommissions(String partnerId, Commission.Status status, YearMonth referenceMonth,
+                                  Consumer<CommissionResponse> consumer) {
+        String scopedPartnerId = resolvePartnerScope(partnerId);
+
+        long count = 0;
+        try (Stream<Commission> commissions = commissionRepository.streamFiltered(scopedPartnerId, status, referenceMonth)) {
+            for (Commission commission : (Iterable<Commission>) commissions::iterator) {
+                consumer.accept(mapToResponse(commission));
+                // Não acumular as entidades já exportadas no contexto de persistência
+                entityManager.detach(commission);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private String resolvePartnerScope(String partnerId) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        User currentUser = (User) auth.getPrincipal();
+
+        if (currentUser.getRole() == User.Role.PARTNER) {
+            if (partnerId != null && !partnerId.equals(currentUser.getPartnerId())) {
+                throw new RuntimeException("Access denied");
+            }
+            return currentUser.getPartnerId();
+        }
+        return partnerId;
+    }
+    
     public void approveCommission(Long commissionId) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         User currentUser = (User) auth.getPrincipal();
@@ -122,6 +221,7 @@ public class CommissionService {
         
         commission.setStatus(Commission.Status.APPROVED);
         commissionRepository.save(commission);
+        partnerMonthTotalsService.refreshCommissionTotals(commission.getReferenceMonth(), commission.getPartnerId());
     }
     
     public void payCommission(Long commissionId) {
@@ -142,43 +242,72 @@ public class CommissionService {
         
         commission.setStatus(Commission.Status.PAID);
         commissionRepository.save(commission);
+        partnerMonthTotalsService.refreshCommissionTotals(commission.getReferenceMonth(), commission.getPartnerId());
     }
-    
-    private BigDecimal calculateCommissionValue(Client client, CommissionRule rule) {
-        BigDecimal billing = client.getMonthlyBilling() != null ? client.getMonthlyBilling() : BigDecimal.ZERO;
-        
-        // Check if billing meets minimum threshold
-        if (rule.getMinBillingThreshold() != null && billing.compareTo(rule.getMinBillingThreshold()) < 0) {
-            return BigDecimal.ZERO;
+
+    /**
+     * Aprova em lote as comissões PENDING selecionadas por ids ou pelo filtro de mês/parceiro
+     */
+    public CommissionBulkTransitionResponse approveCommissions(CommissionBulkTransitionRequest request, HttpServletRequest httpRequest) {
+        return transitionCommissions(request, Commission.Status.PENDING, Commission.Status.APPROVED, httpRequest);
+    }
+
+    /**
+     * Marca como pagas em lote as comissões APPROVED selecionadas por ids ou pelo filtro de mês/parceiro
+     */
+    public CommissionBulkTransitionResponse payCommissions(CommissionBulkTransitionRequest request, HttpServletRequest httpRequest) {
+        return transitionCommissions(request, Commission.Status.APPROVED, Commission.Status.PAID, httpRequest);
+    }
+
+    private CommissionBulkTransitionResponse transitionCommissions(CommissionBulkTransitionRequest request,
+                                                                   Commission.Status fromStatus,
+                                                                   Commission.Status toStatus,
+                                                                   HttpServletRequest httpRequest) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        User currentUser = (User) auth.getPrincipal();
+
+        // Only ADMIN can change commission status
+        if (currentUser.getRole() != User.Role.ADMIN) {
+            throw new RuntimeException("Access denied");
         }
-        
-        // Check if billing exceeds maximum threshold
-        if (rule.getMaxBillingThreshold() != null && billing.compareTo(rule.getMaxBillingThreshold()) > 0) {
-            return BigDecimal.ZERO;
+
+        if (request.getStatus() != null && request.getStatus() != fromStatus) {
+            throw new RuntimeException("Only " + fromStatus + " commissions can be changed to " + toStatus);
         }
-        
-        BigDecimal fixedCommission = rule.getFixedCommission();
-        BigDecimal percentageCommission = BigDecimal.ZERO;
-        
-        if (rule.getPercentageCommission() != null) {
-            percentageCommission = billing.multiply(rule.getPercentageCommission());
+
+        boolean byIds = request.getCommissionIds() != null && !request.getCommissionIds().isEmpty();
+        if (byIds == (request.getReferenceMonth() != null)) {
+            throw new RuntimeException("Provide either commissionIds or referenceMonth");
         }
-        
-        return fixedCommission.add(percentageCommission);
-    }
-    
-    private BigDecimal calculateBonusValue(Client client, CommissionRule rule) {
-        // Simple bonus calculation for individual client billing
-        BigDecimal billing = client.getMonthlyBilling() != null ? client.getMonthlyBilling() : BigDecimal.ZERO;
-        
-        // Bonus for high billing clients (legacy calculation)
-        if (billing.compareTo(new BigDecimal("10000")) > 0) {
-            return billing.multiply(new BigDecimal("0.02")); // 2% bonus
+
+        // Ids bloqueados (FOR UPDATE) e UPDATE com a mesma condição de status: o contador retornado
+        // corresponde exatamente às comissões auditadas
+        List<Long> lockedIds;
+        int updated;
+        if (byIds) {
+            lockedIds = commissionRepository.lockIdsByStatusAndIdIn(fromStatus.name(), request.getCommissionIds());
+            updated = lockedIds.isEmpty() ? 0 : commissionRepository.updateStatusByIdIn(fromStatus, toStatus, lockedIds);
+            partnerMonthTotalsService.refreshCommissionTotalsFor(lockedIds);
+        } else {
+            YearMonth referenceMonth = YearMonth.parse(request.getReferenceMonth());
+            lockedIds = commissionRepository.lockIdsByStatusAndFilter(fromStatus.name(), referenceMonth.atDay(1), request.getPartnerId());
+            updated = lockedIds.isEmpty() ? 0 : commissionRepository.updateStatusByFilter(fromStatus, toStatus, referenceMonth, request.getPartnerId());
+            if (updated > 0) {
+                partnerMonthTotalsService.refreshCommissionTotals(referenceMonth, request.getPartnerId());
+            }
         }
-        
-        return BigDecimal.ZERO;
-    }
 
+        auditService.logBulkUpdate("COMMISSION", lockedIds.stream().map(String::valueOf).collect(Collectors.toList()),
+                Map.of("status", fromStatus), Map.of("status", toStatus), request.getJustification(), httpRequest);
+
+        return CommissionBulkTransitionResponse.builder()
+                .fromStatus(fromStatus)
+                .toStatus(toStatus)
+                .requested(byIds ? request.getCommissionIds().size() : null)
+                .updated(updated)
+                .build();
+    }
+    
     /**
      * Calcula comissões incluindo bônus por desempenho para um mês específico
      */
@@ -188,23 +317,24 @@ public class CommissionService {
         
         // Depois, adicionar bônus por desempenho
         addPerformanceBonusesForMonth(referenceMonth);
+        partnerMonthTotalsService.refreshCommissionTotals(referenceMonth, null);
     }
 
     /**
      * Adiciona bônus por desempenho às comissões de um mês específico
      */
     private void addPerformanceBonusesForMonth(YearMonth referenceMonth) {
-        List<Partner> activePartners = partnerRepository.findByStatus(Partner.Status.ACTIVE);
+        // Bônus de todos os parceiros ativos calculados em lote
+        Map<String, BigDecimal> bonusByPartner = bonusCalculationService.calculateTotalBonusByPartner(referenceMonth);
+        List<Commission> performanceBonusCommissions = new ArrayList<>();
         
-        for (Partner partner : activePartners) {
-            // Calcular bônus por desempenho para o parceiro
-            BigDecimal performanceBonus = bonusCalculationService
-                .calculateTotalBonusForPartner(partner.getPartnerId(), referenceMonth);
+        for (Map.Entry<String, BigDecimal> entry : bonusByPartner.entrySet()) {
+            BigDecimal performanceBonus = entry.getValue();
             
             if (performanceBonus.compareTo(BigDecimal.ZERO) > 0) {
                 // Criar registro de comissão para o bônus de desempenho
                 Commission performanceBonusCommission = Commission.builder()
-                    .partnerId(partner.getPartnerId())
+                    .partnerId(entry.getKey())
                     .clientId(null) // Bônus não está associado a um cliente específico
                     .referenceMonth(referenceMonth)
                     .clientBilling(BigDecimal.ZERO)
@@ -214,9 +344,11 @@ public class CommissionService {
                     .status(Commission.Status.PENDING)
                     .build();
                 
-                commissionRepository.save(performanceBonusCommission);
+                performanceBonusCommissions.add(performanceBonusCommission);
             }
         }
+
+        batchInsertRepository.upsertCommissions(performanceBonusCommissions);
     }
     
     private CommissionResponse mapToResponse(Commission commission) {
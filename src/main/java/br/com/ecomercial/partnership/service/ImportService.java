@@ -10,6 +10,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -33,6 +34,7 @@ public class ImportService {
     private final PartnerRepository partnerRepository;
     private final ClientRepository clientRepository;
     private final MetricsService metricsService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Inicia processo de importação de parceiros
@@ -246,6 +248,10 @@ public class ImportService {
                 }
             }
 
+            if (successCount > 0) {
+                eventPublisher.publishEvent(PartnerDataChanged.allPartners());
+            }
+
             // Atualizar job com resultados
             job.setTotalLines(totalLines);
             job.setSuccessLines(successCount);
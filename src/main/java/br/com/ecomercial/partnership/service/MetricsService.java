@@ -46,6 +46,10 @@ public class MetricsService {
     private Counter commissionRuleCreatedCounter;
     private Counter commissionRuleUpdatedCounter;
 
+    // Contadores para o cache de bônus
+    private Counter bonusCacheHitCounter;
+    private Counter bonusCacheMissCounter;
+
     /**
      * Incrementa contador de execução de fechamento
      */
@@ -194,6 +198,20 @@ public class MetricsService {
         log.info("Audit log metric incremented for action: {}", action);
     }
 
+    /**
+     * Incrementa contador de logs de auditoria gravados em lote
+     */
+    public void incrementAuditLogs(String action, int count) {
+        if (auditLogCounter == null) {
+            auditLogCounter = Counter.builder("audit.logs.count")
+                    .description("Number of audit logs created")
+                    .tag("action", action)
+                    .register(meterRegistry);
+        }
+        auditLogCounter.increment(count);
+        log.info("Audit log metric incremented by {} for action: {}", count, action);
+    }
+
     /**
      * Incrementa contador de criação de parceiro
      */
@@ -297,4 +315,42 @@ public class MetricsService {
         commissionRuleUpdatedCounter.increment();
         log.info("Commission rule updated metric incremented");
     }
+
+    /**
+     * Incrementa contador de acertos do cache de bônus
+     */
+    public void incrementBonusCacheHit() {
+        if (bonusCacheHitCounter == null) {
+            bonusCacheHitCounter = Counter.builder("bonus.cache.hits")
+                    .description("Bonus calculations served from cache")
+                    .register(meterRegistry);
+        }
+        bonusCacheHitCounter.increment();
+    }
+
+    /**
+     * Incrementa contador de faltas do cache de bônus
+     */
+    public void incrementBonusCacheMiss() {
+        if (bonusCacheMissCounter == null) {
+            bonusCacheMissCounter = Counter.builder("bonus.cache.misses")
+                    .description("Bonus calculations computed on cache miss")
+                    .register(meterRegistry);
+        }
+        bonusCacheMissCounter.increment();
+    }
+
+    /**
+     * Incrementa contador do cache de dashboard por resultado (hit, stale, miss ou refresh)
+     */
+    public void incrementDashboardCache(String result) {
+        meterRegistry.counter("dashboard.cache.results", "result", result).increment();
+    }
+
+    /**
+     * Registra o tamanho do cache de dashboard como gauge
+     */
+    public void registerDashboardCacheSize(PartnerDashboardCache cache) {
+        meterRegistry.gauge("dashboard.cache.size", cache, PartnerDashboardCache::size);
+    }
 }
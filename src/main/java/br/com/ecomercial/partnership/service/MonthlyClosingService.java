@@ -6,6 +6,8 @@ import br.com.ecomercial.partnership.repository.*;
 import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -13,10 +15,15 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -25,13 +32,18 @@ import java.util.stream.Collectors;
 @Transactional
 public class MonthlyClosingService {
 
+    private static final int MAX_DETAIL_PAGE_SIZE = 1000;
+
     private final MonthlyClosingRepository monthlyClosingRepository;
     private final ClosingDetailRepository closingDetailRepository;
-    private final ClientRepository clientRepository;
+    private final ClosingPartnerSummaryRepository closingPartnerSummaryRepository;
+    private final PartnerMonthTotalsService partnerMonthTotalsService;
     private final CommissionRuleRepository commissionRuleRepository;
-    private final PartnerRepository partnerRepository;
     private final BonusCalculationService bonusCalculationService;
+    private final ClosingCalculationService closingCalculationService;
+    private final CommissionRuleIndex commissionRuleIndex;
     private final MetricsService metricsService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Executa o fechamento mensal para um mês específico
@@ -46,31 +58,25 @@ public class MonthlyClosingService {
         Timer.Sample sample = metricsService.startClosingTimer();
 
         try {
-            // Verificar se já existe fechamento para o mês
-            if (monthlyClosingRepository.existsByReferenceMonth(referenceMonth)) {
-                MonthlyClosing existingClosing = monthlyClosingRepository.findByReferenceMonth(referenceMonth)
-                        .orElseThrow(() -> new RuntimeException("Monthly closing not found"));
-                
-                if (existingClosing.isCompleted()) {
-                    throw new RuntimeException("Closing already exists for month: " + referenceMonth);
-                }
-            }
+        // Fechamento reaberto: gravar apenas as diferenças sobre os detalhes existentes
+        if (monthlyClosingRepository.findByReferenceMonth(referenceMonth).map(MonthlyClosing::isReopened).orElse(false)) {
+            MonthlyClosingResponse response = recloseReopenedClosing(referenceMonth);
+            metricsService.incrementClosingSuccess(referenceMonth);
+            metricsService.stopClosingTimer(sample);
+            return response;
+        }
 
-        // Criar ou atualizar fechamento
-        MonthlyClosing closing = createOrUpdateClosing(referenceMonth);
+        // Criar ou atualizar fechamento (persistido antes dos detalhes, que são gravados em chunks)
+        MonthlyClosing closing = startClosing(referenceMonth);
 
         // Calcular comissões e bônus
-        List<ClosingDetail> closingDetails = calculateClosingDetails(referenceMonth, closing);
+        ClosingTotals totals = closingCalculationService
+                .calculateClosingDetails(referenceMonth, closing, 0L, Long.MAX_VALUE);
 
-        // Atualizar totais do fechamento
-        updateClosingTotals(closing, closingDetails);
+        // Atualizar totais e finalizar fechamento
+        MonthlyClosing savedClosing = completeClosing(closing, totals);
 
-        // Finalizar fechamento
-        closing.setStatus(MonthlyClosing.Status.COMPLETED);
-        closing.setClosedBy(getCurrentUsername());
-        MonthlyClosing savedClosing = monthlyClosingRepository.save(closing);
-
-        log.info("Fechamento mensal concluído para: {} com {} detalhes", referenceMonth, closingDetails.size());
+        log.info("Fechamento mensal concluído para: {} com {} detalhes", referenceMonth, totals.getTotalClients());
 
         // Incrementar métrica de sucesso e parar timer
         metricsService.incrementClosingSuccess(referenceMonth);
@@ -86,6 +92,108 @@ public class MonthlyClosingService {
         }
     }
 
+    /**
+     * Refecha um fechamento REOPENED comparando os detalhes recalculados com os existentes por
+     * cliente e gravando em lote apenas INSERT/UPDATE/DELETE necessários
+     */
+    private MonthlyClosingResponse recloseReopenedClosing(YearMonth referenceMonth) {
+        MonthlyClosing closing = startClosing(referenceMonth);
+
+        ClosingReconciliation reconciliation = closingCalculationService.reconcileClosingDetails(referenceMonth, closing);
+
+        // Totais reagregados dos detalhes (uma consulta): não herdam divergências do cabeçalho anterior
+        MonthlyClosing savedClosing = completeClosingFromDetails(closing, getCurrentUsername());
+
+        log.info("Fechamento reaberto refechado para: {} ({} inseridos, {} atualizados, {} removidos)", referenceMonth,
+                reconciliation.getAddedClients(), reconciliation.getUpdatedClients(), reconciliation.getRemovedClients());
+        return mapToResponse(savedClosing);
+    }
+
+    /**
+     * Executa o fechamento mensal incremental: copia em lote os detalhes que não podem ter mudado
+     * desde o último fechamento COMPLETED e recalcula apenas os clientes alterados
+     */
+    public MonthlyClosingResponse runIncrementalClosing(YearMonth referenceMonth) {
+        Optional<MonthlyClosing> previousClosing = monthlyClosingRepository
+                .findFirstByStatusAndReferenceMonthLessThanOrderByReferenceMonthDesc(MonthlyClosing.Status.COMPLETED, referenceMonth);
+
+        if (previousClosing.isEmpty() || previousClosing.get().getSnapshotAt() == null) {
+            log.info("Sem fechamento anterior concluído para {}; executando fechamento completo", referenceMonth);
+            return runMonthlyClosing(referenceMonth);
+        }
+
+        MonthlyClosing previous = previousClosing.get();
+        log.info("Iniciando fechamento incremental para: {} a partir de {}", referenceMonth, previous.getReferenceMonth());
+
+        // Incrementar métrica de execução de fechamento
+        metricsService.incrementClosingExecution(referenceMonth);
+
+        // Iniciar timer de execução
+        Timer.Sample sample = metricsService.startClosingTimer();
+
+        try {
+            MonthlyClosing closing = startClosing(referenceMonth);
+
+            // Em reexecução (fechamento reaberto) os detalhes são reconstruídos do zero
+            closingDetailRepository.deleteByMonthlyClosingId(closing.getId());
+
+            LocalDate previousMonthStart = previous.getReferenceMonth().atDay(1);
+            LocalDate monthStart = referenceMonth.atDay(1);
+            // Alterações a partir da leitura do fechamento anterior (updatedAt é o fim da execução)
+            LocalDateTime since = previous.getSnapshotAt();
+
+            // Copiar em lote os detalhes inalterados
+            int carriedForward = closingDetailRepository.carryForwardUnchangedDetails(closing.getId(), previous.getId(),
+                    since, previousMonthStart, monthStart, findDirtyClientTypes(previousMonthStart, monthStart, since));
+
+            // Recalcular os demais clientes ativos no mês
+            ClosingTotals recomputed = closingCalculationService.calculateMissingClosingDetails(referenceMonth, closing);
+
+            MonthlyClosing savedClosing = completeClosingFromDetails(closing, getCurrentUsername());
+
+            log.info("Fechamento incremental concluído para: {} ({} recalculados, {} copiados)",
+                    referenceMonth, recomputed.getTotalClients(), carriedForward);
+
+            // Incrementar métrica de sucesso e parar timer
+            metricsService.incrementClosingSuccess(referenceMonth);
+            metricsService.stopClosingTimer(sample);
+
+            MonthlyClosingResponse response = mapToResponse(savedClosing);
+            response.setRecomputedClients(recomputed.getTotalClients());
+            response.setCarriedForwardClients(carriedForward);
+            return response;
+
+        } catch (Exception e) {
+            // Incrementar métrica de falha e parar timer
+            metricsService.incrementClosingFailure(referenceMonth, e.getMessage());
+            metricsService.stopClosingTimer(sample);
+            throw e;
+        }
+    }
+
+    /**
+     * Simula o fechamento do mês sem gravar nada e envia ao consumidor as diferenças em relação ao
+     * fechamento persistido (clientes adicionados, removidos e alterados), em ordem de clientId
+     */
+    @Transactional(readOnly = true)
+    public ClosingDryRunSummary dryRunClosing(YearMonth referenceMonth, Consumer<ClosingDiffEntry> diffConsumer) {
+        log.info("Iniciando simulação de fechamento para: {}", referenceMonth);
+
+        Optional<MonthlyClosing> persistedClosing = monthlyClosingRepository.findByReferenceMonth(referenceMonth);
+        Long persistedClosingId = persistedClosing.map(MonthlyClosing::getId).orElse(null);
+        MonthlyClosing closing = persistedClosing.orElseGet(() -> MonthlyClosing.builder()
+                .referenceMonth(referenceMonth)
+                .build());
+
+        ClosingDiff diff = new ClosingDiff(diffConsumer);
+        closingCalculationService.diffClosingDetails(referenceMonth, closing, persistedClosingId, diff);
+
+        ClosingDryRunSummary summary = diff.toSummary(referenceMonth.toString(), persistedClosingId);
+        log.info("Simulação de fechamento concluída para: {} ({} adicionados, {} removidos, {} alterados)",
+                referenceMonth, summary.getAddedClients(), summary.getRemovedClients(), summary.getChangedClients());
+        return summary;
+    }
+
     /**
      * Reabre um fechamento para correções
      */
@@ -102,6 +210,8 @@ public class MonthlyClosingService {
         closing.setReopenedBy(getCurrentUsername());
 
         MonthlyClosing savedClosing = monthlyClosingRepository.save(closing);
+        partnerMonthTotalsService.clearClosingTotals(referenceMonth);
+        eventPublisher.publishEvent(PartnerDataChanged.allPartners());
         log.info("Fechamento reaberto para: {} com justificativa: {}", referenceMonth, justification);
 
         // Incrementar métrica de reabertura
@@ -121,6 +231,14 @@ public class MonthlyClosingService {
         return mapToResponse(closing);
     }
 
+    /**
+     * Monta a resposta de um fechamento
+     */
+    @Transactional(readOnly = true)
+    public MonthlyClosingResponse toResponse(MonthlyClosing closing) {
+        return mapToResponse(closing);
+    }
+
     /**
      * Lista todos os fechamentos
      */
@@ -132,222 +250,193 @@ public class MonthlyClosingService {
     }
 
     /**
-     * Obtém resumo do fechamento por parceiro
+     * Obtém uma página dos detalhes do fechamento após o cursor (afterPartnerId, afterClientId)
+     */
+    @Transactional(readOnly = true)
+    public ClosingDetailPageResponse getClosingDetails(YearMonth referenceMonth, String afterPartnerId,
+                                                       Long afterClientId, int size) {
+        MonthlyClosing closing = monthlyClosingRepository.findByReferenceMonth(referenceMonth)
+                .orElseThrow(() -> new RuntimeException("Monthly closing not found for month: " + referenceMonth));
+
+        int pageSize = Math.min(Math.max(size, 1), MAX_DETAIL_PAGE_SIZE);
+        List<ClosingDetail> details = closingDetailRepository.findPageAfter(closing.getId(),
+                afterPartnerId != null ? afterPartnerId : "", afterClientId != null ? afterClientId : 0L,
+                PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = details.size() > pageSize;
+        List<ClosingDetail> page = hasMore ? details.subList(0, pageSize) : details;
+        ClosingDetail last = page.isEmpty() ? null : page.get(page.size() - 1);
+
+        return ClosingDetailPageResponse.builder()
+                .items(page.stream()
+                        .map(this::mapToDetailResponse)
+                        .collect(Collectors.toList()))
+                .hasMore(hasMore)
+                .nextPartnerId(last != null ? last.getPartnerId() : null)
+                .nextClientId(last != null ? last.getClientId() : null)
+                .build();
+    }
+
+    /**
+     * Obtém resumo do fechamento por parceiro (pré-agregado na conclusão do fechamento)
      */
     @Transactional(readOnly = true)
     public List<PartnerClosingSummaryResponse> getPartnerSummaries(YearMonth referenceMonth) {
         MonthlyClosing closing = monthlyClosingRepository.findByReferenceMonth(referenceMonth)
                 .orElseThrow(() -> new RuntimeException("Monthly closing not found for month: " + referenceMonth));
 
-        List<ClosingDetail> details = closingDetailRepository.findByMonthlyClosing(closing);
-        
-        return details.stream()
-                .collect(Collectors.groupingBy(ClosingDetail::getPartnerId))
-                .entrySet().stream()
-                .map(entry -> createPartnerSummary(entry.getKey(), entry.getValue()))
+        return closingPartnerSummaryRepository.findByMonthlyClosingIdOrderByPartnerIdAsc(closing.getId()).stream()
+                .map(summary -> mapToSummaryResponse(summary, null))
                 .collect(Collectors.toList());
     }
 
-    private MonthlyClosing createOrUpdateClosing(YearMonth referenceMonth) {
-        Optional<MonthlyClosing> existingClosing = monthlyClosingRepository.findByReferenceMonth(referenceMonth);
-        
-        if (existingClosing.isPresent()) {
-            MonthlyClosing closing = existingClosing.get();
-            closing.setStatus(MonthlyClosing.Status.IN_PROGRESS);
-            return closing;
-        } else {
-            return MonthlyClosing.builder()
-                    .referenceMonth(referenceMonth)
-                    .status(MonthlyClosing.Status.IN_PROGRESS)
-                    .totalPartners(0)
-                    .totalClients(0)
-                    .totalCommission(BigDecimal.ZERO)
-                    .totalBonus(BigDecimal.ZERO)
-                    .totalPayout(BigDecimal.ZERO)
-                    .build();
-        }
-    }
+    /**
+     * Obtém o resumo do fechamento de um parceiro com os detalhes por cliente
+     */
+    @Transactional(readOnly = true)
+    public PartnerClosingSummaryResponse getPartnerSummary(YearMonth referenceMonth, String partnerId) {
+        MonthlyClosing closing = monthlyClosingRepository.findByReferenceMonth(referenceMonth)
+                .orElseThrow(() -> new RuntimeException("Monthly closing not found for month: " + referenceMonth));
 
-    private List<ClosingDetail> calculateClosingDetails(YearMonth referenceMonth, MonthlyClosing closing) {
-        List<ClosingDetail> details = new ArrayList<>();
-        LocalDate monthStart = referenceMonth.atDay(1);
-        LocalDate monthEnd = referenceMonth.atEndOfMonth();
+        ClosingPartnerSummary summary = closingPartnerSummaryRepository.findByMonthlyClosingIdAndPartnerId(closing.getId(), partnerId)
+                .orElseThrow(() -> new RuntimeException("Partner summary not found for partner " + partnerId + " in month: " + referenceMonth));
 
-        // Buscar todos os clientes ativos no período
-        List<Client> activeClients = clientRepository.findAll().stream()
-                .filter(client -> isClientActiveInMonth(client, monthStart, monthEnd))
+        List<ClosingDetailResponse> details = closingDetailRepository.findByPartnerIdAndMonthlyClosing(partnerId, closing).stream()
+                .map(this::mapToDetailResponse)
                 .collect(Collectors.toList());
+        return mapToSummaryResponse(summary, details);
+    }
+
+    /**
+     * Valida e persiste o cabeçalho de um fechamento que lerá todos os clientes desde o início
+     */
+    public MonthlyClosing startClosing(YearMonth referenceMonth) {
+        return startClosing(referenceMonth, false);
+    }
 
-        for (Client client : activeClients) {
-            try {
-                ClosingDetail detail = calculateClientClosingDetail(client, referenceMonth, closing);
-                details.add(detail);
-            } catch (Exception e) {
-                log.error("Erro ao calcular detalhe para cliente {}: {}", client.getId(), e.getMessage());
+    /**
+     * Valida e persiste o cabeçalho do fechamento em processamento. Na retomada a partir de um
+     * checkpoint, os detalhes já gravados vieram da leitura original, então snapshotAt é mantido
+     */
+    public MonthlyClosing startClosing(YearMonth referenceMonth, boolean resuming) {
+        // Verificar se já existe fechamento para o mês
+        if (monthlyClosingRepository.existsByReferenceMonth(referenceMonth)) {
+            MonthlyClosing existingClosing = monthlyClosingRepository.findByReferenceMonth(referenceMonth)
+                    .orElseThrow(() -> new RuntimeException("Monthly closing not found"));
+
+            if (existingClosing.isCompleted()) {
+                throw new RuntimeException("Closing already exists for month: " + referenceMonth);
             }
         }
 
-        // Salvar todos os detalhes
-        closingDetailRepository.saveAll(details);
-        
-        return details;
+        return monthlyClosingRepository.save(createOrUpdateClosing(referenceMonth, resuming));
     }
 
-    private ClosingDetail calculateClientClosingDetail(Client client, YearMonth referenceMonth, MonthlyClosing closing) {
-        LocalDate monthStart = referenceMonth.atDay(1);
-        LocalDate monthEnd = referenceMonth.atEndOfMonth();
-
-        // Determinar tipo de cliente efetivo no mês
-        Client.ClientType effectiveClientType = getEffectiveClientType(client, monthStart);
-        
-        // Buscar regra de comissão vigente
-        CommissionRule rule = commissionRuleRepository
-                .findActiveRuleForClientTypeAndDate(effectiveClientType, monthStart)
-                .orElseThrow(() -> new RuntimeException("Commission rule not found for client type: " + effectiveClientType));
-
-        // Calcular comissão
-        BigDecimal commissionValue = calculateCommissionValue(client, rule);
-        
-        // Calcular bônus (simplificado - apenas bônus por faturamento individual)
-        BigDecimal bonusValue = calculateClientBonus(client, rule);
-
-        // Determinar observações
-        String observations = generateObservations(client, monthStart, monthEnd);
-
-        return ClosingDetail.builder()
-                .monthlyClosing(closing)
-                .partnerId(client.getPartnerId())
-                .clientId(client.getId())
-                .clientName(client.getName())
-                .clientType(effectiveClientType)
-                .clientStatus(client.getStatus())
-                .clientActiveFrom(client.getCreatedAt() != null ? client.getCreatedAt().toLocalDate() : null)
-                .clientInactiveFrom(client.getStatusEffectiveFrom())
-                .monthlyRevenue(client.getMonthlyBilling())
-                .ruleType(effectiveClientType)
-                .commissionRate(rule.getPercentageCommission())
-                .commissionValue(commissionValue)
-                .bonusValue(bonusValue)
-                .totalValue(commissionValue.add(bonusValue))
-                .observations(observations)
-                .build();
+    /**
+     * Aplica os totais calculados e finaliza o fechamento
+     */
+    public MonthlyClosing completeClosing(MonthlyClosing closing, ClosingTotals totals) {
+        totals.applyTo(closing);
+        return finishClosing(closing, getCurrentUsername());
     }
 
-    private boolean isClientActiveInMonth(Client client, LocalDate monthStart, LocalDate monthEnd) {
-        // Cliente está ativo se:
-        // 1. Status é ACTIVE e não há data de inativação
-        // 2. Status é ACTIVE mas data de inativação é após o início do mês
-        // 3. Status é INACTIVE mas data de inativação é após o início do mês
-
-        if (client.getStatus() == Client.Status.ACTIVE) {
-            return client.getStatusEffectiveFrom() == null || 
-                   !client.getStatusEffectiveFrom().isBefore(monthStart);
-        } else {
-            return client.getStatusEffectiveFrom() != null && 
-                   client.getStatusEffectiveFrom().isAfter(monthStart);
-        }
+    /**
+     * Finaliza o fechamento com totais agregados dos detalhes já gravados
+     */
+    public MonthlyClosing completeClosingFromDetails(MonthlyClosing closing, String closedBy) {
+        Object[] totals = closingDetailRepository.getTotalsByMonthlyClosingId(closing.getId()).get(0);
+
+        closing.setTotalClients(((Number) totals[0]).intValue());
+        closing.setTotalCommission(toBigDecimal(totals[1]));
+        closing.setTotalBonus(toBigDecimal(totals[2]));
+        closing.setTotalPayout(toBigDecimal(totals[3]));
+        closing.setTotalPartners(((Number) totals[4]).intValue());
+        return finishClosing(closing, closedBy);
     }
 
-    private Client.ClientType getEffectiveClientType(Client client, LocalDate monthStart) {
-        // Por simplicidade, usar o tipo atual do cliente
-        // Em uma implementação mais complexa, seria necessário verificar o histórico de tipos
-        return client.getClientType();
+    private MonthlyClosing finishClosing(MonthlyClosing closing, String closedBy) {
+        // Resumo por parceiro gravado uma única vez, a partir dos detalhes do fechamento
+        closingPartnerSummaryRepository.deleteByMonthlyClosingId(closing.getId());
+        closingPartnerSummaryRepository.insertFromClosingDetails(closing.getId());
+        partnerMonthTotalsService.refreshClosingTotals(closing);
+        eventPublisher.publishEvent(PartnerDataChanged.allPartners());
+
+        closing.setStatus(MonthlyClosing.Status.COMPLETED);
+        closing.setClosedBy(closedBy);
+        return monthlyClosingRepository.save(closing);
     }
 
-    private BigDecimal calculateCommissionValue(Client client, CommissionRule rule) {
-        BigDecimal billing = client.getMonthlyBilling() != null ? client.getMonthlyBilling() : BigDecimal.ZERO;
-        
-        // Verificar thresholds
-        if (rule.getMinBillingThreshold() != null && billing.compareTo(rule.getMinBillingThreshold()) < 0) {
-            return BigDecimal.ZERO;
-        }
-        
-        if (rule.getMaxBillingThreshold() != null && billing.compareTo(rule.getMaxBillingThreshold()) > 0) {
-            return BigDecimal.ZERO;
+    /**
+     * Tipos de cliente cuja regra de comissão foi alterada desde o fechamento anterior ou cuja
+     * regra vigente difere entre os dois meses; seus detalhes não podem ser copiados
+     */
+    private List<String> findDirtyClientTypes(LocalDate previousMonthStart, LocalDate monthStart, LocalDateTime since) {
+        Set<Client.ClientType> dirtyTypes = EnumSet.noneOf(Client.ClientType.class);
+        dirtyTypes.addAll(commissionRuleRepository.findClientTypesWithRulesChangedSince(since));
+
+        for (Client.ClientType clientType : Client.ClientType.values()) {
+            CommissionRule previousRule = commissionRuleIndex.findRule(clientType, previousMonthStart);
+            CommissionRule currentRule = commissionRuleIndex.findRule(clientType, monthStart);
+            if (!Objects.equals(previousRule != null ? previousRule.getId() : null,
+                    currentRule != null ? currentRule.getId() : null)) {
+                dirtyTypes.add(clientType);
+            }
         }
-        
-        BigDecimal fixedCommission = rule.getFixedCommission();
-        BigDecimal percentageCommission = BigDecimal.ZERO;
-        
-        if (rule.getPercentageCommission() != null) {
-            percentageCommission = billing.multiply(rule.getPercentageCommission());
+
+        List<String> names = new ArrayList<>();
+        dirtyTypes.forEach(clientType -> names.add(clientType.name()));
+        if (names.isEmpty()) {
+            // NOT IN com lista vazia não é SQL válido
+            names.add("");
         }
-        
-        return fixedCommission.add(percentageCommission);
+        return names;
     }
 
-    private BigDecimal calculateClientBonus(Client client, CommissionRule rule) {
-        // Bônus simplificado baseado no faturamento individual
-        BigDecimal billing = client.getMonthlyBilling() != null ? client.getMonthlyBilling() : BigDecimal.ZERO;
-        
-        if (billing.compareTo(new BigDecimal("10000")) > 0) {
-            return billing.multiply(new BigDecimal("0.02")); // 2% bonus
-        }
-        
-        return BigDecimal.ZERO;
+    private BigDecimal toBigDecimal(Object value) {
+        return value instanceof BigDecimal ? (BigDecimal) value : new BigDecimal(value.toString());
     }
 
-    private String generateObservations(Client client, LocalDate monthStart, LocalDate monthEnd) {
-        List<String> observations = new ArrayList<>();
-        
-        if (client.getStatusEffectiveFrom() != null && 
-            client.getStatusEffectiveFrom().isAfter(monthStart) && 
-            client.getStatusEffectiveFrom().isBefore(monthEnd)) {
-            observations.add(String.format("Cliente inativado em %s", client.getStatusEffectiveFrom()));
-        }
-        
-        return String.join("; ", observations);
+    /**
+     * Remove os detalhes gravados de um fechamento que falhou, permitindo nova execução
+     */
+    public void discardClosingDetails(MonthlyClosing closing) {
+        closingDetailRepository.deleteByMonthlyClosingId(closing.getId());
     }
 
-    private void updateClosingTotals(MonthlyClosing closing, List<ClosingDetail> details) {
-        closing.setTotalClients(details.size());
-        
-        closing.setTotalCommission(details.stream()
-                .map(ClosingDetail::getCommissionValue)
-                .reduce(BigDecimal.ZERO, BigDecimal::add));
-        
-        closing.setTotalBonus(details.stream()
-                .map(ClosingDetail::getBonusValue)
-                .reduce(BigDecimal.ZERO, BigDecimal::add));
-        
-        closing.setTotalPayout(details.stream()
-                .map(ClosingDetail::getTotalValue)
-                .reduce(BigDecimal.ZERO, BigDecimal::add));
+    private MonthlyClosing createOrUpdateClosing(YearMonth referenceMonth, boolean resuming) {
+        Optional<MonthlyClosing> existingClosing = monthlyClosingRepository.findByReferenceMonth(referenceMonth);
         
-        closing.setTotalPartners((int) details.stream()
-                .map(ClosingDetail::getPartnerId)
-                .distinct()
-                .count());
+        if (existingClosing.isPresent()) {
+            MonthlyClosing closing = existingClosing.get();
+            closing.setStatus(MonthlyClosing.Status.IN_PROGRESS);
+            if (!resuming || closing.getSnapshotAt() == null) {
+                closing.setSnapshotAt(LocalDateTime.now());
+            }
+            return closing;
+        } else {
+            return MonthlyClosing.builder()
+                    .referenceMonth(referenceMonth)
+                    .status(MonthlyClosing.Status.IN_PROGRESS)
+                    .snapshotAt(LocalDateTime.now())
+                    .totalPartners(0)
+                    .totalClients(0)
+                    .totalCommission(BigDecimal.ZERO)
+                    .totalBonus(BigDecimal.ZERO)
+                    .totalPayout(BigDecimal.ZERO)
+                    .build();
+        }
     }
 
-    private PartnerClosingSummaryResponse createPartnerSummary(String partnerId, List<ClosingDetail> details) {
-        Partner partner = partnerRepository.findById(partnerId)
-                .orElse(null);
-        
-        String partnerName = partner != null ? partner.getName() : "Parceiro não encontrado";
-        
-        BigDecimal totalCommission = details.stream()
-                .map(ClosingDetail::getCommissionValue)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        BigDecimal totalBonus = details.stream()
-                .map(ClosingDetail::getBonusValue)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        BigDecimal totalPayout = details.stream()
-                .map(ClosingDetail::getTotalValue)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
+    private PartnerClosingSummaryResponse mapToSummaryResponse(ClosingPartnerSummary summary,
+                                                               List<ClosingDetailResponse> clientDetails) {
         return PartnerClosingSummaryResponse.builder()
-                .partnerId(partnerId)
-                .partnerName(partnerName)
-                .totalClients(details.size())
-                .totalCommission(totalCommission)
-                .totalBonus(totalBonus)
-                .totalPayout(totalPayout)
-                .clientDetails(details.stream()
-                        .map(this::mapToDetailResponse)
-                        .collect(Collectors.toList()))
+                .partnerId(summary.getPartnerId())
+                .partnerName(summary.getPartnerName() != null ? summary.getPartnerName() : "Parceiro não encontrado")
+                .totalClients(summary.getTotalClients())
+                .totalCommission(summary.getTotalCommission())
+                .totalBonus(summary.getTotalBonus())
+                .totalPayout(summary.getTotalPayout())
+                .clientDetails(clientDetails)
                 .build();
     }
 
@@ -359,9 +448,10 @@ public class MonthlyClosingService {
         return "system";
     }
 
+    /**
+     * Cabeçalho do fechamento, sem detalhes (obtidos paginados em getClosingDetails)
+     */
     private MonthlyClosingResponse mapToResponse(MonthlyClosing closing) {
-        List<ClosingDetail> details = closingDetailRepository.findByMonthlyClosing(closing);
-        
         return MonthlyClosingResponse.builder()
                 .id(closing.getId())
                 .referenceMonth(closing.getReferenceMonth().toString())
@@ -376,9 +466,6 @@ public class MonthlyClosingService {
                 .reopenedBy(closing.getReopenedBy())
                 .createdAt(closing.getCreatedAt())
                 .updatedAt(closing.getUpdatedAt())
-                .closingDetails(details.stream()
-                        .map(this::mapToDetailResponse)
-                        .collect(Collectors.toList()))
                 .build();
     }
 
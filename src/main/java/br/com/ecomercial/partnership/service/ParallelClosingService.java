@@ -0,0 +1,118 @@
+package br.com.ecomercial.partnership.service;
+
+import br.com.ecomercial.partnership.dto.MonthlyClosingResponse;
+import br.com.ecomercial.partnership.entity.MonthlyClosing;
+import br.com.ecomercial.partnership.repository.ClientRepository;
+import br.com.ecomercial.partnership.repository.MonthlyClosingRepository;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Fechamento mensal particionado por faixas de id de cliente, executado em paralelo.
+ *
+ * As partições são faixas contíguas e disjuntas que cobrem todos os ids, cada cliente é calculado
+ * pelo mesmo {@link ClosingCalculationService} usado no modo sequencial e os totais são somas
+ * exatas de BigDecimal, portanto detalhes e totais são idênticos aos da execução sequencial.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ParallelClosingService {
+
+    private final MonthlyClosingService monthlyClosingService;
+    private final MonthlyClosingRepository monthlyClosingRepository;
+    private final ClosingCalculationService closingCalculationService;
+    private final ClientRepository clientRepository;
+    private final MetricsService metricsService;
+    private final Executor closingTaskExecutor;
+
+    @Value("${closing.parallel.partitions:8}")
+    private int partitions;
+
+    /**
+     * Executa o fechamento mensal com uma transação por partição
+     */
+    public MonthlyClosingResponse runMonthlyClosing(YearMonth referenceMonth) {
+        // Fechamento reaberto é refechado por diferenças, com escrita mínima, no modo sequencial
+        if (monthlyClosingRepository.findByReferenceMonth(referenceMonth).map(MonthlyClosing::isReopened).orElse(false)) {
+            return monthlyClosingService.runMonthlyClosing(referenceMonth);
+        }
+
+        log.info("Iniciando fechamento mensal paralelo para: {} ({} partições)", referenceMonth, partitions);
+
+        // Incrementar métrica de execução de fechamento
+        metricsService.incrementClosingExecution(referenceMonth);
+
+        // Iniciar timer de execução
+        Timer.Sample sample = metricsService.startClosingTimer();
+
+        MonthlyClosing closing = null;
+        try {
+            // Cabeçalho é confirmado antes das partições, que o referenciam em outras transações
+            closing = monthlyClosingService.startClosing(referenceMonth);
+            MonthlyClosing partitionClosing = closing;
+
+            List<CompletableFuture<ClosingTotals>> futures = new ArrayList<>();
+            for (long[] range : partitionRanges(clientRepository.findMaxId(), partitions)) {
+                futures.add(CompletableFuture.supplyAsync(() -> closingCalculationService
+                        .calculateClosingDetails(referenceMonth, partitionClosing, range[0], range[1]),
+                        closingTaskExecutor));
+            }
+
+            // Aguardar todas as partições antes de consolidar (ou descartar em caso de falha)
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).exceptionally(ex -> null).join();
+
+            ClosingTotals totals = new ClosingTotals();
+            for (CompletableFuture<ClosingTotals> future : futures) {
+                totals.merge(future.join());
+            }
+
+            MonthlyClosing savedClosing = monthlyClosingService.completeClosing(closing, totals);
+
+            log.info("Fechamento mensal paralelo concluído para: {} com {} detalhes", referenceMonth, totals.getTotalClients());
+
+            // Incrementar métrica de sucesso e parar timer
+            metricsService.incrementClosingSuccess(referenceMonth);
+            metricsService.stopClosingTimer(sample);
+
+            return monthlyClosingService.toResponse(savedClosing);
+
+        } catch (Exception e) {
+            // Partições já confirmadas são descartadas para permitir nova execução
+            if (closing != null) {
+                monthlyClosingService.discardClosingDetails(closing);
+            }
+
+            // Incrementar métrica de falha e parar timer
+            metricsService.incrementClosingFailure(referenceMonth, e.getMessage());
+            metricsService.stopClosingTimer(sample);
+            throw e;
+        }
+    }
+
+    /**
+     * Divide [0, maxClientId] em faixas (de, até] contíguas; a última faixa é aberta para cobrir
+     * clientes criados durante a execução, assim como no modo sequencial
+     */
+    static List<long[]> partitionRanges(long maxClientId, int partitions) {
+        int count = Math.max(1, partitions);
+        long size = Math.max(1, (maxClientId + count - 1) / count);
+
+        List<long[]> ranges = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long from = i * size;
+            long to = i == count - 1 ? Long.MAX_VALUE : (i + 1) * size;
+            ranges.add(new long[]{from, to});
+        }
+        return ranges;
+    }
+}
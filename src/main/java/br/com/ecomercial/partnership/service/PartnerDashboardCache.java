@@ -0,0 +1,172 @@
+package br.com.ecomercial.partnership.service;
+
+import br.com.ecomercial.partnership.dto.PartnerDashboardResponse;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Read model do dashboard do parceiro por (parceiro, mês), com stale-while-revalidate.
+ *
+ * Uma entrada é servida sem recálculo por partner-dashboard-cache.fresh-seconds. Depois disso, e
+ * até partner-dashboard-cache.max-stale-seconds, a versão antiga continua sendo servida enquanto
+ * uma única atualização roda em segundo plano. Invalidação por {@link PartnerDataChanged} após o
+ * commit: alterações de um parceiro removem suas entradas (o parceiro vê a própria alteração na
+ * próxima leitura); alterações globais apenas marcam todas as entradas como desatualizadas, para
+ * que sejam revalidadas aos poucos em vez de recalculadas todas de uma vez.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PartnerDashboardCache {
+
+    private final MetricsService metricsService;
+    private final Executor dashboardRefreshExecutor;
+
+    @Value("${partner-dashboard-cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${partner-dashboard-cache.fresh-seconds:30}")
+    private long freshSeconds;
+
+    @Value("${partner-dashboard-cache.max-stale-seconds:600}")
+    private long maxStaleSeconds;
+
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            return size() > maxSize;
+        }
+    };
+
+    private final Set<Key> refreshing = new HashSet<>();
+
+    /** Incrementado a cada invalidação; marca o início dos cálculos */
+    private long generation;
+
+    /**
+     * Geração da última invalidação de cada parceiro: cálculos do parceiro iniciados antes dela
+     * não são armazenados, sem afetar os dos demais parceiros
+     */
+    private final Map<String, Long> partnerInvalidatedAt = new HashMap<>();
+
+    /** Entradas carregadas antes desta geração estão desatualizadas (invalidação global) */
+    private long staleBefore;
+
+    @PostConstruct
+    void registerMetrics() {
+        metricsService.registerDashboardCacheSize(this);
+    }
+
+    public PartnerDashboardResponse get(String partnerId, YearMonth referenceMonth,
+                                        Supplier<PartnerDashboardResponse> loader) {
+        Key key = new Key(partnerId, referenceMonth);
+        long startedAt;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                long age = System.nanoTime() - entry.loadedAt;
+                if (age <= TimeUnit.SECONDS.toNanos(freshSeconds) && entry.generation >= staleBefore) {
+                    metricsService.incrementDashboardCache("hit");
+                    return entry.value;
+                }
+                if (age <= TimeUnit.SECONDS.toNanos(maxStaleSeconds)) {
+                    metricsService.incrementDashboardCache("stale");
+                    scheduleRefresh(key, loader);
+                    return entry.value;
+                }
+            }
+            startedAt = generation;
+        }
+
+        metricsService.incrementDashboardCache("miss");
+        PartnerDashboardResponse value = loader.get();
+        store(key, value, startedAt);
+        return value;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPartnerDataChanged(PartnerDataChanged event) {
+        if (event.affectsAllPartners()) {
+            markAllStale();
+        } else {
+            invalidatePartner(event.partnerId());
+        }
+    }
+
+    public synchronized void invalidatePartner(String partnerId) {
+        generation++;
+        partnerInvalidatedAt.put(partnerId, generation);
+        entries.keySet().removeIf(key -> key.partnerId.equals(partnerId));
+    }
+
+    public synchronized void markAllStale() {
+        generation++;
+        staleBefore = generation;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Chamado com o lock do cache; a atualização roda fora dele
+     */
+    private void scheduleRefresh(Key key, Supplier<PartnerDashboardResponse> loader) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        long startedAt = generation;
+        try {
+            dashboardRefreshExecutor.execute(() -> {
+                try {
+                    if (store(key, loader.get(), startedAt)) {
+                        metricsService.incrementDashboardCache("refresh");
+                    }
+                } catch (Exception e) {
+                    log.warn("Erro ao atualizar dashboard de {} em {}: {}", key.partnerId, key.referenceMonth, e.getMessage());
+                } finally {
+                    synchronized (this) {
+                        refreshing.remove(key);
+                    }
+                }
+            });
+        } catch (TaskRejectedException e) {
+            // Fila cheia: a versão atual continua sendo servida e a próxima leitura tenta de novo
+            refreshing.remove(key);
+        }
+    }
+
+    /**
+     * Armazena o resultado se o parceiro não foi invalidado desde o início do cálculo. Após uma
+     * invalidação global o resultado é armazenado, mas já desatualizado (sua geração é anterior a
+     * staleBefore)
+     */
+    private synchronized boolean store(Key key, PartnerDashboardResponse value, long startedAt) {
+        if (partnerInvalidatedAt.getOrDefault(key.partnerId, 0L) > startedAt) {
+            return false;
+        }
+        entries.put(key, new Entry(value, System.nanoTime(), startedAt));
+        return true;
+    }
+
+    private record Key(String partnerId, YearMonth referenceMonth) {
+    }
+
+    private record Entry(PartnerDashboardResponse value, long loadedAt, long generation) {
+    }
+}
@@ -9,14 +9,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -26,50 +28,101 @@ public class PartnerDashboardService {
 
     private final ClientRepository clientRepository;
     private final PartnerRepository partnerRepository;
-    private final CommissionRuleRepository commissionRuleRepository;
+    private final CommissionRuleIndex commissionRuleIndex;
+    private final ClientTypeResolver clientTypeResolver;
     private final MonthlyClosingRepository monthlyClosingRepository;
     private final BonusCalculationService bonusCalculationService;
+    private final PartnerDashboardCache partnerDashboardCache;
+    private final PlatformTransactionManager transactionManager;
 
     /**
-     * Obtém o dashboard do parceiro para um mês específico
+     * Obtém o dashboard do parceiro para um mês específico (via {@link PartnerDashboardCache})
      */
     public PartnerDashboardResponse getPartnerDashboard(YearMonth referenceMonth) {
         String partnerId = getCurrentPartnerId();
         log.info("Obtendo dashboard para parceiro {} no mês {}", partnerId, referenceMonth);
 
+        // O loader também roda nas atualizações em segundo plano do cache, fora do proxy deste
+        // serviço: a transação somente leitura é aberta explicitamente (ou reaproveitada na requisição)
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        return partnerDashboardCache.get(partnerId, referenceMonth,
+                () -> readOnlyTransaction.execute(status -> buildPartnerDashboard(partnerId, referenceMonth)));
+    }
+
+    /**
+     * Monta o dashboard a partir das tabelas em uma única passada pelos clientes do parceiro:
+     * detalhes por cliente, totais de comissão e faturamento e as entradas do bônus por desempenho.
+     * Não depende do usuário autenticado, pois também roda nas atualizações em segundo plano do cache
+     */
+    private PartnerDashboardResponse buildPartnerDashboard(String partnerId, YearMonth referenceMonth) {
         Partner partner = partnerRepository.findById(partnerId)
                 .orElseThrow(() -> new RuntimeException("Partner not found"));
 
-        // Buscar clientes ativos do parceiro no período
-        List<Client> activeClients = getActiveClientsForMonth(partnerId, referenceMonth);
+        LocalDate monthStart = referenceMonth.atDay(1);
+        LocalDate monthEnd = referenceMonth.atEndOfMonth();
 
-        // Calcular comissões estimadas
-        BigDecimal estimatedCommission = calculateEstimatedCommission(activeClients, referenceMonth);
-        BigDecimal estimatedBonus = calculateEstimatedBonus(partnerId, referenceMonth);
-        BigDecimal estimatedTotal = estimatedCommission.add(estimatedBonus);
+        List<Client> partnerClients = clientRepository.findByPartnerId(partnerId);
+        ClientTypeTimeline timeline = clientTypeResolver.forPartner(referenceMonth, partnerId);
+
+        List<ClientDashboardDetail> clientDetails = new ArrayList<>();
+        long commissionCents = 0L;
+        long billingCents = 0L;
+        int bonusClientCount = 0;
+        long bonusRevenueCents = 0L;
+
+        for (Client client : partnerClients) {
+            long clientBillingCents = CommissionMath.toCents(client.getMonthlyBilling());
 
-        // Calcular faturamento total
-        BigDecimal totalClientBilling = activeClients.stream()
-                .filter(client -> client.getMonthlyBilling() != null)
-                .map(Client::getMonthlyBilling)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+            // Entradas do bônus por desempenho (regra de atividade própria do cálculo de bônus)
+            if (BonusCalculationService.isClientActiveOnDate(client, monthStart)) {
+                bonusClientCount++;
+                bonusRevenueCents += clientBillingCents;
+            }
+
+            if (!isClientActiveInMonth(client, monthStart, monthEnd)) {
+                continue;
+            }
+
+            long clientCommissionCents = 0L;
+            long clientBonusCents = 0L;
+            try {
+                // Tipo de cliente efetivo no mês e regra de comissão vigente
+                Client.ClientType effectiveClientType = timeline.resolve(client, monthStart);
+                CommissionMath.Terms terms = commissionRuleIndex.findTerms(effectiveClientType, monthStart);
 
-        BigDecimal averageClientBilling = activeClients.isEmpty() ? BigDecimal.ZERO :
-                totalClientBilling.divide(BigDecimal.valueOf(activeClients.size()), 2, BigDecimal.ROUND_HALF_UP);
+                if (terms != null) {
+                    clientCommissionCents = CommissionMath.commissionCents(clientBillingCents, terms);
+                }
+
+                // Bônus simplificado baseado no faturamento individual
+                clientBonusCents = CommissionMath.legacyBonusCents(clientBillingCents);
+            } catch (Exception e) {
+                log.warn("Erro ao calcular valores para cliente {}: {}", client.getId(), e.getMessage());
+            }
+
+            commissionCents += clientCommissionCents;
+            billingCents += clientBillingCents;
+            clientDetails.add(createClientDashboardDetail(client, monthStart, monthEnd, clientCommissionCents, clientBonusCents));
+        }
+
+        BigDecimal estimatedCommission = CommissionMath.toAmount(commissionCents);
+        BigDecimal estimatedBonus = calculateEstimatedBonus(partnerId, referenceMonth, bonusClientCount,
+                CommissionMath.toAmount(bonusRevenueCents));
+        BigDecimal estimatedTotal = estimatedCommission.add(estimatedBonus);
+
+        BigDecimal totalClientBilling = CommissionMath.toAmount(billingCents);
+        BigDecimal averageClientBilling = clientDetails.isEmpty() ? BigDecimal.ZERO :
+                totalClientBilling.divide(BigDecimal.valueOf(clientDetails.size()), 2, BigDecimal.ROUND_HALF_UP);
 
         // Buscar último fechamento
         String lastClosing = findLastClosing();
 
-        // Criar detalhes dos clientes
-        List<ClientDashboardDetail> clientDetails = activeClients.stream()
-                .map(client -> createClientDashboardDetail(client, referenceMonth))
-                .collect(Collectors.toList());
-
         return PartnerDashboardResponse.builder()
                 .partnerId(partnerId)
                 .partnerName(partner.getName())
                 .referenceMonth(referenceMonth.toString())
-                .activeClients(activeClients.size())
+                .activeClients(clientDetails.size())
                 .estimatedCommission(estimatedCommission)
                 .estimatedBonus(estimatedBonus)
                 .estimatedTotal(estimatedTotal)
@@ -85,23 +138,7 @@ public class PartnerDashboardService {
      * Obtém apenas os detalhes dos clientes do parceiro para um mês específico
      */
     public List<ClientDashboardDetail> getPartnerClientDetails(YearMonth referenceMonth) {
-        String partnerId = getCurrentPartnerId();
-        log.info("Obtendo detalhes dos clientes para parceiro {} no mês {}", partnerId, referenceMonth);
-
-        List<Client> activeClients = getActiveClientsForMonth(partnerId, referenceMonth);
-
-        return activeClients.stream()
-                .map(client -> createClientDashboardDetail(client, referenceMonth))
-                .collect(Collectors.toList());
-    }
-
-    private List<Client> getActiveClientsForMonth(String partnerId, YearMonth referenceMonth) {
-        LocalDate monthStart = referenceMonth.atDay(1);
-        LocalDate monthEnd = referenceMonth.atEndOfMonth();
-
-        return clientRepository.findByPartnerId(partnerId).stream()
-                .filter(client -> isClientActiveInMonth(client, monthStart, monthEnd))
-                .collect(Collectors.toList());
+        return getPartnerDashboard(referenceMonth).getClientDetails();
     }
 
     private boolean isClientActiveInMonth(Client client, LocalDate monthStart, LocalDate monthEnd) {
@@ -119,102 +156,26 @@ public class PartnerDashboardService {
         }
     }
 
-    private BigDecimal calculateEstimatedCommission(List<Client> clients, YearMonth referenceMonth) {
-        LocalDate monthStart = referenceMonth.atDay(1);
-        BigDecimal totalCommission = BigDecimal.ZERO;
-
-        for (Client client : clients) {
-            try {
-                // Determinar tipo de cliente efetivo no mês
-                Client.ClientType effectiveClientType = getEffectiveClientType(client, monthStart);
-                
-                // Buscar regra de comissão vigente
-                Optional<CommissionRule> ruleOpt = commissionRuleRepository
-                        .findActiveRuleForClientTypeAndDate(effectiveClientType, monthStart);
-
-                if (ruleOpt.isPresent()) {
-                    CommissionRule rule = ruleOpt.get();
-                    BigDecimal commission = calculateCommissionValue(client, rule);
-                    totalCommission = totalCommission.add(commission);
-                }
-            } catch (Exception e) {
-                log.warn("Erro ao calcular comissão para cliente {}: {}", client.getId(), e.getMessage());
-            }
-        }
-
-        return totalCommission;
-    }
-
-    private BigDecimal calculateEstimatedBonus(String partnerId, YearMonth referenceMonth) {
+    private BigDecimal calculateEstimatedBonus(String partnerId, YearMonth referenceMonth,
+                                               int activeClientsCount, BigDecimal totalRevenue) {
         try {
-            return bonusCalculationService.calculateTotalBonusForPartner(partnerId, referenceMonth);
+            return bonusCalculationService.calculateTotalBonus(referenceMonth, activeClientsCount, totalRevenue);
         } catch (Exception e) {
             log.warn("Erro ao calcular bônus para parceiro {}: {}", partnerId, e.getMessage());
             return BigDecimal.ZERO;
         }
     }
 
-    private Client.ClientType getEffectiveClientType(Client client, LocalDate monthStart) {
-        // Por simplicidade, usar o tipo atual do cliente
-        // Em uma implementação mais complexa, seria necessário verificar o histórico de tipos
-        return client.getClientType();
-    }
-
-    private BigDecimal calculateCommissionValue(Client client, CommissionRule rule) {
-        BigDecimal billing = client.getMonthlyBilling() != null ? client.getMonthlyBilling() : BigDecimal.ZERO;
-        
-        // Verificar thresholds
-        if (rule.getMinBillingThreshold() != null && billing.compareTo(rule.getMinBillingThreshold()) < 0) {
-            return BigDecimal.ZERO;
-        }
-        
-        if (rule.getMaxBillingThreshold() != null && billing.compareTo(rule.getMaxBillingThreshold()) > 0) {
-            return BigDecimal.ZERO;
-        }
-        
-        BigDecimal fixedCommission = rule.getFixedCommission();
-        BigDecimal percentageCommission = BigDecimal.ZERO;
-        
-        if (rule.getPercentageCommission() != null) {
-            percentageCommission = billing.multiply(rule.getPercentageCommission());
-        }
-        
-        return fixedCommission.add(percentageCommission);
-    }
-
     private String findLastClosing() {
         Optional<YearMonth> lastClosingOpt = monthlyClosingRepository.findLastCompletedMonth();
         return lastClosingOpt.map(YearMonth::toString).orElse(null);
     }
 
-    private ClientDashboardDetail createClientDashboardDetail(Client client, YearMonth referenceMonth) {
-        LocalDate monthStart = referenceMonth.atDay(1);
-        LocalDate monthEnd = referenceMonth.atEndOfMonth();
-
-        // Calcular comissão estimada para o cliente
-        BigDecimal estimatedCommission = BigDecimal.ZERO;
-        BigDecimal estimatedBonus = BigDecimal.ZERO;
-
-        try {
-            Client.ClientType effectiveClientType = getEffectiveClientType(client, monthStart);
-            Optional<CommissionRule> ruleOpt = commissionRuleRepository
-                    .findActiveRuleForClientTypeAndDate(effectiveClientType, monthStart);
-
-            if (ruleOpt.isPresent()) {
-                CommissionRule rule = ruleOpt.get();
-                estimatedCommission = calculateCommissionValue(client, rule);
-            }
-
-            // Bônus simplificado baseado no faturamento individual
-            BigDecimal billing = client.getMonthlyBilling() != null ? client.getMonthlyBilling() : BigDecimal.ZERO;
-            if (billing.compareTo(new BigDecimal("10000")) > 0) {
-                estimatedBonus = billing.multiply(new BigDecimal("0.02")); // 2% bonus
-            }
-        } catch (Exception e) {
-            log.warn("Erro ao calcular valores para cliente {}: {}", client.getId(), e.getMessage());
-        }
-
-        BigDecimal estimatedTotal = estimatedCommission.add(estimatedBonus);
+    private ClientDashboardDetail createClientDashboardDetail(Client client, LocalDate monthStart, LocalDate monthEnd,
+                                                             long commissionCents, long bonusCents) {
+        BigDecimal estimatedCommission = CommissionMath.toAmount(commissionCents);
+        BigDecimal estimatedBonus = CommissionMath.toAmount(bonusCents);
+        BigDecimal estimatedTotal = CommissionMath.toAmount(commissionCents + bonusCents);
 
         // Gerar observações
         String observations = generateClientObservations(client, monthStart, monthEnd);
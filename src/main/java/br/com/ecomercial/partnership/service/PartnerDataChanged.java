@@ -0,0 +1,22 @@
+package br.com.ecomercial.partnership.service;
+
+/**
+ * Evento de alteração em dados que alimentam visões derivadas por parceiro (bônus, dashboard).
+ * Publicado dentro da transação da alteração; os caches escutam com @TransactionalEventListener
+ * e invalidam após o commit. partnerId nulo indica alteração que afeta todos os parceiros
+ * (regras de comissão, políticas de bônus, importações e fechamentos).
+ */
+public record PartnerDataChanged(String partnerId) {
+
+    public static PartnerDataChanged partner(String partnerId) {
+        return new PartnerDataChanged(partnerId);
+    }
+
+    public static PartnerDataChanged allPartners() {
+        return new PartnerDataChanged(null);
+    }
+
+    public boolean affectsAllPartners() {
+        return partnerId == null;
+    }
+}
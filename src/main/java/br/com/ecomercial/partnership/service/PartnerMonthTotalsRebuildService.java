@@ -0,0 +1,66 @@
+package br.com.ecomercial.partnership.service;
+
+import br.com.ecomercial.partnership.dto.PartnerMonthTotalsRebuildResponse;
+import br.com.ecomercial.partnership.entity.MonthlyClosing;
+import br.com.ecomercial.partnership.repository.MonthlyClosingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Reconstrução completa de partner_month_totals a partir de commissions e closing_details,
+ * com um mês por tarefa (e por transação) no pool de fechamento
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PartnerMonthTotalsRebuildService {
+
+    private final PartnerMonthTotalsService partnerMonthTotalsService;
+    private final MonthlyClosingRepository monthlyClosingRepository;
+    private final Executor closingTaskExecutor;
+
+    public PartnerMonthTotalsRebuildResponse rebuildAll() {
+        long start = System.nanoTime();
+
+        Map<YearMonth, Long> completedClosings = new HashMap<>();
+        for (MonthlyClosing closing : monthlyClosingRepository.findByStatus(MonthlyClosing.Status.COMPLETED)) {
+            completedClosings.put(closing.getReferenceMonth(), closing.getId());
+        }
+        TreeSet<YearMonth> months = new TreeSet<>(partnerMonthTotalsService.findAllCommissionMonths());
+        months.addAll(completedClosings.keySet());
+
+        log.info("Reconstruindo totais por parceiro e mês para {} meses", months.size());
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (YearMonth month : months) {
+            futures.add(CompletableFuture.runAsync(() -> partnerMonthTotalsService
+                    .rebuildMonth(month, completedClosings.get(month)), closingTaskExecutor));
+        }
+        // Aguardar todas as tarefas antes de propagar a primeira falha
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).exceptionally(ex -> null).join();
+        for (CompletableFuture<Void> future : futures) {
+            future.join();
+        }
+
+        int removedRows = partnerMonthTotalsService.deleteMonthsNotIn(months);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("Totais por parceiro e mês reconstruídos: {} meses, {} linhas obsoletas removidas em {} ms",
+                months.size(), removedRows, elapsedMs);
+
+        return PartnerMonthTotalsRebuildResponse.builder()
+                .months(months.size())
+                .removedRows(removedRows)
+                .elapsedMs(elapsedMs)
+                .build();
+    }
+}
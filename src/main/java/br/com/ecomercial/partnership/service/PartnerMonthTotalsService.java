@@ -0,0 +1,113 @@
+package br.com.ecomercial.partnership.service;
+
+import br.com.ecomercial.partnership.entity.MonthlyClosing;
+import br.com.ecomercial.partnership.entity.PartnerMonthTotals;
+import br.com.ecomercial.partnership.repository.PartnerMonthTotalsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Mantém a tabela partner_month_totals em sincronia com commissions e closing_details.
+ *
+ * Cada atualização recalcula, em SQL, apenas o recorte (mês, e opcionalmente parceiro) afetado pela
+ * gravação, na mesma transação dela; leitores obtêm os totais por chave primária.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class PartnerMonthTotalsService {
+
+    private final PartnerMonthTotalsRepository partnerMonthTotalsRepository;
+
+    /**
+     * Recalcula os totais de comissão do mês; partnerId null recalcula todos os parceiros
+     */
+    public void refreshCommissionTotals(YearMonth referenceMonth, String partnerId) {
+        LocalDate month = referenceMonth.atDay(1);
+        // Zerar antes: parceiros cujas comissões deixaram de existir (ou foram canceladas) não aparecem no agrupamento
+        partnerMonthTotalsRepository.resetCommissionTotals(month, partnerId);
+        partnerMonthTotalsRepository.upsertCommissionTotals(month, partnerId);
+    }
+
+    /**
+     * Recalcula os totais de comissão dos meses das comissões informadas
+     */
+    public void refreshCommissionTotalsFor(Collection<Long> commissionIds) {
+        if (commissionIds.isEmpty()) {
+            return;
+        }
+        for (YearMonth referenceMonth : partnerMonthTotalsRepository.findCommissionMonths(commissionIds)) {
+            refreshCommissionTotals(referenceMonth, null);
+        }
+    }
+
+    /**
+     * Substitui os totais de fechamento do mês pelos detalhes do fechamento concluído
+     */
+    public void refreshClosingTotals(MonthlyClosing closing) {
+        LocalDate month = closing.getReferenceMonth().atDay(1);
+        partnerMonthTotalsRepository.resetClosingTotals(month);
+        partnerMonthTotalsRepository.upsertClosingTotals(closing.getId(), month);
+    }
+
+    /**
+     * Remove os totais de fechamento do mês (fechamento reaberto)
+     */
+    public void clearClosingTotals(YearMonth referenceMonth) {
+        partnerMonthTotalsRepository.resetClosingTotals(referenceMonth.atDay(1));
+    }
+
+    /**
+     * Recria as linhas do mês a partir das tabelas de origem
+     */
+    public void rebuildMonth(YearMonth referenceMonth, Long completedClosingId) {
+        LocalDate month = referenceMonth.atDay(1);
+        partnerMonthTotalsRepository.deleteByReferenceMonth(month);
+        partnerMonthTotalsRepository.upsertCommissionTotals(month, null);
+        if (completedClosingId != null) {
+            partnerMonthTotalsRepository.upsertClosingTotals(completedClosingId, month);
+        }
+    }
+
+    /**
+     * Remove as linhas de meses que não existem mais nas tabelas de origem
+     */
+    public int deleteMonthsNotIn(Collection<YearMonth> referenceMonths) {
+        if (referenceMonths.isEmpty()) {
+            long existing = partnerMonthTotalsRepository.count();
+            partnerMonthTotalsRepository.deleteAllInBatch();
+            return (int) existing;
+        }
+        return partnerMonthTotalsRepository.deleteByReferenceMonthNotIn(referenceMonths.stream()
+                .map(month -> month.atDay(1))
+                .collect(Collectors.toList()));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<PartnerMonthTotals> getTotals(String partnerId, YearMonth referenceMonth) {
+        return partnerMonthTotalsRepository.findById(new PartnerMonthTotals.Key(partnerId, referenceMonth.atDay(1)));
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, PartnerMonthTotals> getTotalsByPartner(YearMonth referenceMonth) {
+        List<PartnerMonthTotals> totals = partnerMonthTotalsRepository.findByReferenceMonth(referenceMonth.atDay(1));
+        return totals.stream().collect(Collectors.toMap(PartnerMonthTotals::getPartnerId, Function.identity()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<YearMonth> findAllCommissionMonths() {
+        return partnerMonthTotalsRepository.findAllCommissionMonths();
+    }
+}
@@ -7,6 +7,7 @@ import br.com.ecomercial.partnership.entity.User;
 import br.com.ecomercial.partnership.repository.PartnerRepository;
 import br.com.ecomercial.partnership.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -24,6 +25,7 @@ public class PartnerService {
     private final PartnerRepository partnerRepository;
     private final UserRepository userRepository;
     private final MetricsService metricsService;
+    private final ApplicationEventPublisher eventPublisher;
     
     public PartnerResponse createPartner(PartnerRequest request) {
         if (partnerRepository.existsByDocument(request.getDocument())) {
@@ -108,6 +110,7 @@ public class PartnerService {
         partner.setPhone(request.getPhone());
         
         Partner updatedPartner = partnerRepository.save(partner);
+        eventPublisher.publishEvent(PartnerDataChanged.partner(partnerId));
         
         // Incrementar métrica de atualização de parceiro
         metricsService.incrementPartnerUpdated();
@@ -129,6 +132,7 @@ public class PartnerService {
         
         partner.setStatus(Partner.Status.INACTIVE);
         partnerRepository.save(partner);
+        eventPublisher.publishEvent(PartnerDataChanged.partner(partnerId));
         
         // Incrementar métrica de exclusão de parceiro
         metricsService.incrementPartnerDeleted();
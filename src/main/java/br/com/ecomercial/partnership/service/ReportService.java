@@ -9,10 +9,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,7 +24,9 @@ public class ReportService {
 
     private final PartnerRepository partnerRepository;
     private final ClientRepository clientRepository;
-    private final CommissionRuleRepository commissionRuleRepository;
+    private final CommissionRuleIndex commissionRuleIndex;
+    private final ClientTypeResolver clientTypeResolver;
+    private final PartnerMonthTotalsService partnerMonthTotalsService;
 
     /**
      * Gera relatório consolidado por parceiros para um fechamento mensal
@@ -30,20 +34,23 @@ public class ReportService {
     public List<PartnerReportResponse> generatePartnersReport(YearMonth referenceMonth) {
         List<Partner> partners = partnerRepository.findByStatus(Partner.Status.ACTIVE);
 
+        // Totais do fechamento concluído, lidos da tabela materializada partner_month_totals
+        Map<String, PartnerMonthTotals> totalsByPartner = partnerMonthTotalsService.getTotalsByPartner(referenceMonth);
+
         return partners.stream()
                 .map(partner -> {
-                    // Para simplificar, vamos retornar dados básicos dos parceiros
+                    PartnerMonthTotals totals = totalsByPartner.get(partner.getPartnerId());
                     return PartnerReportResponse.builder()
                             .partnerId(partner.getPartnerId())
                             .partnerName(partner.getName())
                             .partnerEmail(partner.getEmail())
                             .partnerPhone(partner.getPhone())
                             .partnerStatus(partner.getStatus().name())
-                            .totalCommission(BigDecimal.ZERO) // Simplificado
-                            .totalBonus(BigDecimal.ZERO) // Simplificado
-                            .grandTotal(BigDecimal.ZERO) // Simplificado
-                            .activeClients(0) // Simplificado
-                            .totalClientBilling(BigDecimal.ZERO) // Simplificado
+                            .totalCommission(totals != null ? totals.getClosingCommissionTotal() : BigDecimal.ZERO)
+                            .totalBonus(totals != null ? totals.getClosingBonusTotal() : BigDecimal.ZERO)
+                            .grandTotal(totals != null ? totals.getClosingPayoutTotal() : BigDecimal.ZERO)
+                            .activeClients(totals != null ? totals.getClosingClientCount() : 0)
+                            .totalClientBilling(totals != null ? totals.getClosingRevenueTotal() : BigDecimal.ZERO)
                             .reportDate(LocalDateTime.now())
                             .build();
                 })
@@ -58,6 +65,7 @@ public class ReportService {
                 .orElseThrow(() -> new RuntimeException("Partner not found"));
 
         List<Client> partnerClients = clientRepository.findByPartnerId(partnerId);
+        ClientTypeTimeline timeline = clientTypeResolver.forPartner(referenceMonth, partnerId);
 
         BigDecimal totalCommission = BigDecimal.ZERO;
         BigDecimal totalBonus = BigDecimal.ZERO;
@@ -67,7 +75,7 @@ public class ReportService {
 
         for (Client client : partnerClients) {
             // Calcular comissão para o cliente
-            BigDecimal clientCommission = calculateCommissionForClient(client, referenceMonth);
+            BigDecimal clientCommission = calculateCommissionForClient(client, referenceMonth, timeline);
             BigDecimal clientBonus = BigDecimal.ZERO; // Simplificado por enquanto
 
             totalCommission = totalCommission.add(clientCommission);
@@ -116,34 +124,17 @@ public class ReportService {
                 .build();
     }
 
-    private BigDecimal calculateCommissionForClient(Client client, YearMonth referenceMonth) {
+    private BigDecimal calculateCommissionForClient(Client client, YearMonth referenceMonth, ClientTypeTimeline timeline) {
         try {
-            CommissionRule rule = commissionRuleRepository
-                    .findActiveRuleForClientTypeAndDate(client.getClientType(), referenceMonth.atDay(1))
-                    .orElse(null);
-
-            if (rule == null) {
-                return BigDecimal.ZERO;
-            }
-
-            BigDecimal billing = client.getMonthlyBilling() != null ? client.getMonthlyBilling() : BigDecimal.ZERO;
+            LocalDate monthStart = referenceMonth.atDay(1);
+            CommissionMath.Terms terms = commissionRuleIndex.findTerms(timeline.resolve(client, monthStart), monthStart);
 
-            // Verificar limites mínimos e máximos
-            if (rule.getMinBillingThreshold() != null && billing.compareTo(rule.getMinBillingThreshold()) < 0) {
+            if (terms == null) {
                 return BigDecimal.ZERO;
             }
-            if (rule.getMaxBillingThreshold() != null && billing.compareTo(rule.getMaxBillingThreshold()) > 0) {
-                return BigDecimal.ZERO;
-            }
-
-            BigDecimal fixedCommission = rule.getFixedCommission();
-            BigDecimal percentageCommission = BigDecimal.ZERO;
-
-            if (rule.getPercentageCommission() != null) {
-                percentageCommission = billing.multiply(rule.getPercentageCommission());
-            }
 
-            return fixedCommission.add(percentageCommission);
+            long billingCents = CommissionMath.toCents(client.getMonthlyBilling());
+            return CommissionMath.toAmount(CommissionMath.commissionCents(billingCents, terms));
         } catch (Exception e) {
             return BigDecimal.ZERO;
         }
@@ -0,0 +1,3 @@
+-- Índice para localizar o detalhe de um cliente dentro de um fechamento
+-- (fechamento incremental e comparação com o fechamento anterior)
+CREATE INDEX idx_closing_details_closing_client ON closing_details (monthly_closing_id, client_id);
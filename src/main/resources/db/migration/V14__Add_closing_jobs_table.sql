@@ -0,0 +1,25 @@
+-- Criar tabela de jobs de fechamento mensal (execução em background com checkpoint)
+CREATE TABLE closing_jobs (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    job_id VARCHAR(50) NOT NULL UNIQUE,
+    reference_month DATE NOT NULL,
+    status ENUM('ACCEPTED', 'PROCESSING', 'COMPLETED', 'FAILED') NOT NULL,
+    monthly_closing_id BIGINT,
+    requested_by VARCHAR(255),
+    total_partners INT,
+    processed_partners INT,
+    processed_clients BIGINT,
+    last_partner_id VARCHAR(20),
+    resumed_at TIMESTAMP NULL,
+    clients_at_resume BIGINT,
+    partners_at_resume INT,
+    message VARCHAR(1000),
+    started_at TIMESTAMP NULL,
+    completed_at TIMESTAMP NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
+-- Índices para performance
+CREATE INDEX idx_closing_jobs_status ON closing_jobs(status);
+CREATE INDEX idx_closing_jobs_reference_month ON closing_jobs(reference_month);
@@ -0,0 +1,2 @@
+-- Índice para a resolução em lote do tipo efetivo (faixa de clientes ordenada por vigência)
+CREATE INDEX idx_client_type_history_client_effective_from ON client_type_history (client_id, effective_from);
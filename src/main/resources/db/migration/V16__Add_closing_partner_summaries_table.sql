@@ -0,0 +1,24 @@
+-- Criar tabela de resumo do fechamento por parceiro (gravada ao concluir o fechamento)
+CREATE TABLE closing_partner_summaries (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    monthly_closing_id BIGINT NOT NULL,
+    partner_id VARCHAR(20) NOT NULL,
+    partner_name VARCHAR(255),
+    total_clients INT NOT NULL DEFAULT 0,
+    total_commission DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+    total_bonus DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+    total_payout DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+    created_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    FOREIGN KEY (monthly_closing_id) REFERENCES monthly_closings(id) ON DELETE CASCADE,
+    UNIQUE KEY uk_closing_partner_summaries_closing_partner (monthly_closing_id, partner_id)
+);
+
+-- Popular os resumos dos fechamentos já concluídos
+INSERT INTO closing_partner_summaries (monthly_closing_id, partner_id, partner_name, total_clients,
+                                       total_commission, total_bonus, total_payout)
+SELECT cd.monthly_closing_id, cd.partner_id, p.name, COUNT(*), COALESCE(SUM(cd.commission_value), 0),
+       COALESCE(SUM(cd.bonus_value), 0), COALESCE(SUM(cd.total_value), 0)
+FROM closing_details cd
+JOIN monthly_closings mc ON mc.id = cd.monthly_closing_id AND mc.status = 'COMPLETED'
+LEFT JOIN partners p ON p.partner_id = cd.partner_id
+GROUP BY cd.monthly_closing_id, cd.partner_id, p.name;
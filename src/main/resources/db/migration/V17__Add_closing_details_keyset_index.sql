@@ -0,0 +1,2 @@
+-- Índice para a paginação por cursor (partner_id, client_id) dos detalhes de um fechamento
+CREATE INDEX idx_closing_details_closing_partner_client ON closing_details (monthly_closing_id, partner_id, client_id);
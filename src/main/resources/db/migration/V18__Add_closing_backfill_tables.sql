@@ -0,0 +1,33 @@
+-- Criar tabelas de backfill de fechamentos (refechamento de uma faixa de meses)
+CREATE TABLE closing_backfills (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    backfill_id VARCHAR(50) NOT NULL UNIQUE,
+    from_month DATE NOT NULL,
+    to_month DATE NOT NULL,
+    status ENUM('ACCEPTED', 'PROCESSING', 'COMPLETED', 'FAILED') NOT NULL,
+    requested_by VARCHAR(255),
+    justification VARCHAR(1000),
+    message VARCHAR(1000),
+    started_at TIMESTAMP NULL,
+    completed_at TIMESTAMP NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
+CREATE TABLE closing_backfill_months (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    closing_backfill_id BIGINT NOT NULL,
+    reference_month DATE NOT NULL,
+    monthly_closing_id BIGINT,
+    status ENUM('PENDING', 'PROCESSING', 'COMPLETED', 'FAILED') NOT NULL,
+    processed_clients BIGINT NOT NULL DEFAULT 0,
+    processed_partitions INT NOT NULL DEFAULT 0,
+    total_partitions INT NOT NULL DEFAULT 0,
+    message VARCHAR(1000),
+    completed_at TIMESTAMP NULL,
+    FOREIGN KEY (closing_backfill_id) REFERENCES closing_backfills(id) ON DELETE CASCADE
+);
+
+-- Índices para performance
+CREATE INDEX idx_closing_backfills_status ON closing_backfills(status);
+CREATE INDEX idx_closing_backfill_months_backfill ON closing_backfill_months(closing_backfill_id, reference_month);
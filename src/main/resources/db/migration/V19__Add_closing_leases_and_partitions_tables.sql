@@ -0,0 +1,27 @@
+-- Leases de fechamento: um nó por mês de referência (chave 'closing:YYYY-MM')
+CREATE TABLE closing_leases (
+    lease_key VARCHAR(100) PRIMARY KEY,
+    owner VARCHAR(100) NOT NULL,
+    acquired_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL
+);
+
+-- Partições (faixas de clientes) de um fechamento, reivindicáveis por qualquer réplica
+CREATE TABLE closing_partitions (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    monthly_closing_id BIGINT NOT NULL,
+    partition_index INT NOT NULL,
+    from_client_id BIGINT NOT NULL,
+    to_client_id BIGINT NOT NULL,
+    status ENUM('PENDING', 'CLAIMED', 'DONE') NOT NULL DEFAULT 'PENDING',
+    owner VARCHAR(100),
+    lease_expires_at TIMESTAMP NULL,
+    processed_clients BIGINT NOT NULL DEFAULT 0,
+    completed_at TIMESTAMP NULL,
+    FOREIGN KEY (monthly_closing_id) REFERENCES monthly_closings(id) ON DELETE CASCADE,
+    UNIQUE KEY uk_closing_partitions_closing_index (monthly_closing_id, partition_index)
+);
+
+-- Índices para performance
+CREATE INDEX idx_closing_partitions_status_lease ON closing_partitions(status, lease_expires_at);
+CREATE INDEX idx_closing_partitions_owner ON closing_partitions(owner, status);
@@ -0,0 +1,3 @@
+-- Listagem paginada por cursor (id) filtrada por parceiro e mês.
+-- No InnoDB o índice secundário já termina na chave primária, então (partner_id, reference_month) cobre ORDER BY id.
+CREATE INDEX idx_commissions_partner_month ON commissions (partner_id, reference_month);
@@ -0,0 +1,50 @@
+-- Totais por parceiro e mês, mantidos junto com as gravações de commissions e closing_details
+CREATE TABLE partner_month_totals (
+    partner_id VARCHAR(20) NOT NULL,
+    reference_month DATE NOT NULL,
+    -- Comissões calculadas (commissions, exceto CANCELLED)
+    commission_total DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+    bonus_total DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+    payout_total DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+    paid_total DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+    client_count INT NOT NULL DEFAULT 0,
+    billing_total DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+    -- Fechamento mensal concluído (closing_details)
+    closing_commission_total DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+    closing_bonus_total DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+    closing_payout_total DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+    closing_client_count INT NOT NULL DEFAULT 0,
+    closing_revenue_total DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+    updated_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6),
+    PRIMARY KEY (partner_id, reference_month),
+    INDEX idx_partner_month_totals_month (reference_month)
+);
+
+-- Popular a partir das tabelas de origem
+INSERT INTO partner_month_totals (partner_id, reference_month, commission_total, bonus_total, payout_total,
+                                  paid_total, client_count, billing_total)
+SELECT c.partner_id, c.reference_month, COALESCE(SUM(c.commission_value), 0), COALESCE(SUM(c.bonus_value), 0),
+       COALESCE(SUM(c.total_value), 0), COALESCE(SUM(CASE WHEN c.status = 'PAID' THEN c.total_value ELSE 0 END), 0),
+       COUNT(DISTINCT c.client_id), COALESCE(SUM(c.client_billing), 0)
+FROM commissions c
+WHERE c.status <> 'CANCELLED'
+GROUP BY c.partner_id, c.reference_month;
+
+INSERT INTO partner_month_totals (partner_id, reference_month, closing_commission_total, closing_bonus_total,
+                                  closing_payout_total, closing_client_count, closing_revenue_total)
+SELECT * FROM (
+    SELECT cd.partner_id, STR_TO_DATE(CONCAT(mc.reference_month, '-01'), '%Y-%m-%d') AS reference_month,
+           COALESCE(SUM(cd.commission_value), 0) AS closing_commission_total,
+           COALESCE(SUM(cd.bonus_value), 0) AS closing_bonus_total,
+           COALESCE(SUM(cd.total_value), 0) AS closing_payout_total,
+           COUNT(*) AS closing_client_count,
+           COALESCE(SUM(cd.monthly_revenue), 0) AS closing_revenue_total
+    FROM closing_details cd
+    JOIN monthly_closings mc ON mc.id = cd.monthly_closing_id AND mc.status = 'COMPLETED'
+    GROUP BY cd.partner_id, mc.reference_month
+) s
+ON DUPLICATE KEY UPDATE closing_commission_total = s.closing_commission_total,
+                        closing_bonus_total = s.closing_bonus_total,
+                        closing_payout_total = s.closing_payout_total,
+                        closing_client_count = s.closing_client_count,
+                        closing_revenue_total = s.closing_revenue_total;
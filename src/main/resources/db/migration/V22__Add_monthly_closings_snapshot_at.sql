@@ -0,0 +1,7 @@
+-- Instante da leitura da carteira de clientes de cada fechamento: marca d'água do fechamento
+-- incremental do mês seguinte (updated_at é posterior à leitura e perderia alterações feitas
+-- durante o fechamento)
+ALTER TABLE monthly_closings ADD COLUMN snapshot_at TIMESTAMP NULL;
+
+-- Fechamentos existentes: created_at é anterior a qualquer leitura do fechamento
+UPDATE monthly_closings SET snapshot_at = created_at;
@@ -0,0 +1,91 @@
+package br.com.ecomercial.partnership.repository;
+
+import br.com.ecomercial.partnership.entity.Client;
+import br.com.ecomercial.partnership.entity.ClosingDetail;
+import br.com.ecomercial.partnership.entity.MonthlyClosing;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compara linhas/s da gravação de closing_details via saveAll (IDENTITY, um INSERT por linha)
+ * e via BatchInsertRepository. Fora da suíte padrão; executar com:
+ * mvn test -Pbenchmark -Dtest=BatchInsertBenchmarkTest
+ */
+@Slf4j
+@SpringBootTest
+@Tag("benchmark")
+class BatchInsertBenchmarkTest {
+
+    private static final int ROWS = 20_000;
+
+    @Autowired
+    private MonthlyClosingRepository monthlyClosingRepository;
+
+    @Autowired
+    private ClosingDetailRepository closingDetailRepository;
+
+    @Autowired
+    private BatchInsertRepository batchInsertRepository;
+
+    @Test
+    void compareSaveAllWithJdbcBatch() {
+        MonthlyClosing saveAllClosing = createClosing(YearMonth.of(1990, 1));
+        MonthlyClosing batchClosing = createClosing(YearMonth.of(1990, 2));
+
+        long start = System.nanoTime();
+        closingDetailRepository.saveAll(buildDetails(saveAllClosing));
+        double saveAllRowsPerSecond = ROWS / ((System.nanoTime() - start) / 1_000_000_000.0);
+
+        start = System.nanoTime();
+        batchInsertRepository.insertClosingDetails(buildDetails(batchClosing));
+        double batchRowsPerSecond = ROWS / ((System.nanoTime() - start) / 1_000_000_000.0);
+
+        log.info("closing_details saveAll: {} linhas/s | JDBC batch: {} linhas/s ({}x)",
+                String.format("%.0f", saveAllRowsPerSecond), String.format("%.0f", batchRowsPerSecond),
+                String.format("%.1f", batchRowsPerSecond / saveAllRowsPerSecond));
+
+        assertEquals(ROWS, closingDetailRepository.countByPartnerIdAndMonthlyClosing("P-BENCH", batchClosing));
+
+        closingDetailRepository.deleteByMonthlyClosingId(saveAllClosing.getId());
+        closingDetailRepository.deleteByMonthlyClosingId(batchClosing.getId());
+        monthlyClosingRepository.deleteAll(List.of(saveAllClosing, batchClosing));
+    }
+
+    private MonthlyClosing createClosing(YearMonth referenceMonth) {
+        return monthlyClosingRepository.save(MonthlyClosing.builder()
+                .referenceMonth(referenceMonth)
+                .status(MonthlyClosing.Status.IN_PROGRESS)
+                .build());
+    }
+
+    private List<ClosingDetail> buildDetails(MonthlyClosing closing) {
+        List<ClosingDetail> details = new ArrayList<>(ROWS);
+        for (long i = 1; i <= ROWS; i++) {
+            details.add(ClosingDetail.builder()
+                    .monthlyClosing(closing)
+                    .partnerId("P-BENCH")
+                    .clientId(i)
+                    .clientName("Cliente " + i)
+                    .clientType(Client.ClientType.TYPE_1)
+                    .clientStatus(Client.Status.ACTIVE)
+                    .monthlyRevenue(new BigDecimal("1500.00"))
+                    .ruleType(Client.ClientType.TYPE_1)
+                    .commissionRate(new BigDecimal("0.0500"))
+                    .commissionValue(new BigDecimal("75.00"))
+                    .bonusValue(BigDecimal.ZERO)
+                    .totalValue(new BigDecimal("75.00"))
+                    .build());
+        }
+        return details;
+    }
+}
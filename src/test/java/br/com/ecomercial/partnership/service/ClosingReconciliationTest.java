@@ -0,0 +1,83 @@
+package br.com.ecomercial.partnership.service;
+
+import br.com.ecomercial.partnership.entity.Client;
+import br.com.ecomercial.partnership.entity.ClosingDetail;
+import br.com.ecomercial.partnership.repository.BatchInsertRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Garante que o refechamento grava alterações em qualquer coluna do detalhe, mesmo quando os
+ * valores de comissão e bônus não mudam (ex.: apenas o faturamento do cliente foi corrigido).
+ */
+@ExtendWith(MockitoExtension.class)
+class ClosingReconciliationTest {
+
+    @Mock
+    private BatchInsertRepository batchInsertRepository;
+
+    @Test
+    void reclosesAfterBillingOnlyChange() {
+        ClosingDetail persisted = detail(10L, "20000.00");
+        ClosingDetail computed = detail(null, "21000.00");
+
+        // As listas do lote são reutilizadas entre chunks: copiar no momento da chamada
+        List<ClosingDetail> updated = new ArrayList<>();
+        doAnswer(invocation -> updated.addAll(invocation.getArgument(0)))
+                .when(batchInsertRepository).updateClosingDetails(anyList());
+
+        ClosingReconciliation reconciliation = new ClosingReconciliation(batchInsertRepository);
+        reconciliation.compare(computed, persisted);
+        reconciliation.endChunk();
+
+        assertEquals(1, reconciliation.getUpdatedClients());
+        assertEquals(List.of(computed), updated);
+        assertEquals(persisted.getId(), computed.getId());
+        assertEquals(0, reconciliation.getAddedClients() + reconciliation.getRemovedClients());
+
+        // Os valores pagos não mudaram: os totais do fechamento não variam
+        assertEquals(0, reconciliation.getTotalDelta().signum());
+    }
+
+    @Test
+    void keepsUnchangedDetails() {
+        ClosingReconciliation reconciliation = new ClosingReconciliation(batchInsertRepository);
+        reconciliation.compare(detail(null, "20000.00"), detail(10L, "20000.00"));
+        reconciliation.endChunk();
+
+        assertEquals(0, reconciliation.getUpdatedClients());
+        verify(batchInsertRepository).updateClosingDetails(List.of());
+        verify(batchInsertRepository).insertClosingDetails(List.of());
+        verify(batchInsertRepository).deleteClosingDetails(List.of());
+    }
+
+    private ClosingDetail detail(Long id, String monthlyRevenue) {
+        return ClosingDetail.builder()
+                .id(id)
+                .partnerId("P-1001")
+                .clientId(1L)
+                .clientName("Cliente 1")
+                .clientType(Client.ClientType.TYPE_1)
+                .clientStatus(Client.Status.ACTIVE)
+                .clientActiveFrom(LocalDate.of(2025, 1, 1))
+                .monthlyRevenue(new BigDecimal(monthlyRevenue))
+                .ruleType(Client.ClientType.TYPE_1)
+                .commissionRate(new BigDecimal("0.0500"))
+                .commissionValue(new BigDecimal("1100.00"))
+                .bonusValue(new BigDecimal("400.00"))
+                .totalValue(new BigDecimal("1500.00"))
+                .build();
+    }
+}
@@ -0,0 +1,80 @@
+package br.com.ecomercial.partnership.service;
+
+import br.com.ecomercial.partnership.entity.CommissionRule;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static br.com.ecomercial.partnership.service.CommissionMathTest.amount;
+import static br.com.ecomercial.partnership.service.CommissionMathTest.randomRule;
+import static br.com.ecomercial.partnership.service.CommissionMathTest.referenceBonus;
+import static br.com.ecomercial.partnership.service.CommissionMathTest.referenceCommission;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compara ns/cliente do cálculo de comissão e bônus em BigDecimal e em ponto fixo. Fora da suíte
+ * padrão; executar com: mvn test -Pbenchmark -Dtest=CommissionMathBenchmarkTest
+ */
+@Slf4j
+@Tag("benchmark")
+class CommissionMathBenchmarkTest {
+
+    private static final int SAMPLES = 200_000;
+
+    @Test
+    void compareWithBigDecimalPath() {
+        Random random = new Random(42L);
+        CommissionRule[] rules = new CommissionRule[64];
+        CommissionMath.Terms[] terms = new CommissionMath.Terms[rules.length];
+        for (int i = 0; i < rules.length; i++) {
+            rules[i] = randomRule(random);
+            terms[i] = CommissionMath.Terms.of(rules[i]);
+        }
+        BigDecimal[] billings = new BigDecimal[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            billings[i] = amount(random, 50_000_00L);
+        }
+
+        // Aquecimento do JIT nos dois caminhos
+        for (int round = 0; round < 5; round++) {
+            runBigDecimal(billings, rules);
+            runFixedPoint(billings, terms);
+        }
+
+        long start = System.nanoTime();
+        BigDecimal bigDecimalTotal = runBigDecimal(billings, rules);
+        double bigDecimalNanos = (System.nanoTime() - start) / (double) SAMPLES;
+
+        start = System.nanoTime();
+        BigDecimal fixedPointTotal = runFixedPoint(billings, terms);
+        double fixedPointNanos = (System.nanoTime() - start) / (double) SAMPLES;
+
+        log.info("comissão BigDecimal: {} ns/cliente | ponto fixo: {} ns/cliente ({}x)",
+                String.format("%.1f", bigDecimalNanos), String.format("%.1f", fixedPointNanos),
+                String.format("%.1f", bigDecimalNanos / fixedPointNanos));
+
+        assertEquals(bigDecimalTotal, fixedPointTotal);
+    }
+
+    private BigDecimal runBigDecimal(BigDecimal[] billings, CommissionRule[] rules) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < billings.length; i++) {
+            total = total.add(referenceCommission(billings[i], rules[i % rules.length]))
+                    .add(referenceBonus(billings[i]));
+        }
+        return total;
+    }
+
+    private BigDecimal runFixedPoint(BigDecimal[] billings, CommissionMath.Terms[] terms) {
+        long total = 0L;
+        for (int i = 0; i < billings.length; i++) {
+            long billingCents = CommissionMath.toCents(billings[i]);
+            total += CommissionMath.commissionCents(billingCents, terms[i % terms.length])
+                    + CommissionMath.legacyBonusCents(billingCents);
+        }
+        return CommissionMath.toAmount(total);
+    }
+}
@@ -0,0 +1,100 @@
+package br.com.ecomercial.partnership.service;
+
+import br.com.ecomercial.partnership.entity.Client;
+import br.com.ecomercial.partnership.entity.CommissionRule;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Confere o cálculo em ponto fixo contra a fórmula original em BigDecimal (arredondada para a
+ * escala das colunas DECIMAL(15,2)) com entradas aleatórias de semente fixa. O benchmark fica em
+ * {@link CommissionMathBenchmarkTest}.
+ */
+class CommissionMathTest {
+
+    private static final int SAMPLES = 200_000;
+    private static final BigDecimal LEGACY_BONUS_THRESHOLD = new BigDecimal("10000");
+    private static final BigDecimal LEGACY_BONUS_RATE = new BigDecimal("0.02");
+
+    @Test
+    void matchesBigDecimalFormula() {
+        Random random = new Random(20240601L);
+
+        for (int i = 0; i < SAMPLES; i++) {
+            CommissionRule rule = randomRule(random);
+            CommissionMath.Terms terms = CommissionMath.Terms.of(rule);
+            BigDecimal billing = random.nextInt(20) == 0 ? null : amount(random, 5_000_000_00L);
+            long billingCents = CommissionMath.toCents(billing);
+
+            assertEquals(referenceCommission(billing, rule),
+                    CommissionMath.toAmount(CommissionMath.commissionCents(billingCents, terms)),
+                    () -> "comissão divergente para faturamento " + billing + " e regra " + rule);
+            assertEquals(referenceBonus(billing),
+                    CommissionMath.toAmount(CommissionMath.legacyBonusCents(billingCents)),
+                    () -> "bônus divergente para faturamento " + billing);
+        }
+    }
+
+    @Test
+    void roundsHalfUpAwayFromZero() {
+        assertEquals(1L, CommissionMath.divideHalfUp(5_000L, 10_000L));
+        assertEquals(0L, CommissionMath.divideHalfUp(4_999L, 10_000L));
+        assertEquals(-1L, CommissionMath.divideHalfUp(-5_000L, 10_000L));
+        assertEquals(0L, CommissionMath.divideHalfUp(-4_999L, 10_000L));
+
+        // 0,01 × 0,5000 = 0,005 -> 0,01
+        assertEquals(1L, CommissionMath.percentOf(1L, 5_000L));
+        // 10.000,01 × 2% = 200,0002 -> 200,00
+        assertEquals(20_000L, CommissionMath.legacyBonusCents(1_000_001L));
+        assertEquals(0L, CommissionMath.legacyBonusCents(1_000_000L));
+    }
+
+    /**
+     * Fórmula anteriormente copiada nos serviços, com o arredondamento aplicado pela coluna DECIMAL(15,2)
+     */
+    static BigDecimal referenceCommission(BigDecimal billingValue, CommissionRule rule) {
+        BigDecimal billing = billingValue != null ? billingValue : BigDecimal.ZERO;
+
+        if (rule.getMinBillingThreshold() != null && billing.compareTo(rule.getMinBillingThreshold()) < 0) {
+            return BigDecimal.ZERO.setScale(2);
+        }
+        if (rule.getMaxBillingThreshold() != null && billing.compareTo(rule.getMaxBillingThreshold()) > 0) {
+            return BigDecimal.ZERO.setScale(2);
+        }
+
+        BigDecimal percentageCommission = BigDecimal.ZERO;
+        if (rule.getPercentageCommission() != null) {
+            percentageCommission = billing.multiply(rule.getPercentageCommission());
+        }
+        return rule.getFixedCommission().add(percentageCommission).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    static BigDecimal referenceBonus(BigDecimal billingValue) {
+        BigDecimal billing = billingValue != null ? billingValue : BigDecimal.ZERO;
+        if (billing.compareTo(LEGACY_BONUS_THRESHOLD) > 0) {
+            return billing.multiply(LEGACY_BONUS_RATE).setScale(2, RoundingMode.HALF_UP);
+        }
+        return BigDecimal.ZERO.setScale(2);
+    }
+
+    static CommissionRule randomRule(Random random) {
+        BigDecimal min = random.nextBoolean() ? amount(random, 20_000_00L) : null;
+        BigDecimal max = random.nextBoolean() ? amount(random, 1_000_000_00L) : null;
+        return CommissionRule.builder()
+                .clientType(Client.ClientType.TYPE_1)
+                .fixedCommission(amount(random, 5_000_00L))
+                .percentageCommission(random.nextInt(10) == 0 ? null : BigDecimal.valueOf(random.nextInt(10_000), 4))
+                .minBillingThreshold(min)
+                .maxBillingThreshold(max)
+                .build();
+    }
+
+    static BigDecimal amount(Random random, long maxCents) {
+        return BigDecimal.valueOf((long) (random.nextDouble() * maxCents), 2);
+    }
+}
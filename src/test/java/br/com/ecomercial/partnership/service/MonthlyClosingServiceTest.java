@@ -0,0 +1,131 @@
+package br.com.ecomercial.partnership.service;
+
+import br.com.ecomercial.partnership.entity.MonthlyClosing;
+import br.com.ecomercial.partnership.repository.ClosingDetailRepository;
+import br.com.ecomercial.partnership.repository.ClosingPartnerSummaryRepository;
+import br.com.ecomercial.partnership.repository.CommissionRuleRepository;
+import br.com.ecomercial.partnership.repository.MonthlyClosingRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Garante que o fechamento incremental usa como marca d'água o início (leitura dos clientes) do
+ * fechamento anterior, e não o fim da sua execução: alterações feitas enquanto o fechamento
+ * anterior rodava não podem ter seus detalhes copiados. A retomada de um fechamento a partir de
+ * checkpoint mantém a marca d'água da execução original.
+ */
+@ExtendWith(MockitoExtension.class)
+class MonthlyClosingServiceTest {
+
+    private static final YearMonth PREVIOUS_MONTH = YearMonth.of(2025, 9);
+    private static final YearMonth MONTH = YearMonth.of(2025, 10);
+
+    @Mock
+    private MonthlyClosingRepository monthlyClosingRepository;
+
+    @Mock
+    private ClosingDetailRepository closingDetailRepository;
+
+    @Mock
+    private ClosingPartnerSummaryRepository closingPartnerSummaryRepository;
+
+    @Mock
+    private PartnerMonthTotalsService partnerMonthTotalsService;
+
+    @Mock
+    private CommissionRuleRepository commissionRuleRepository;
+
+    @Mock
+    private BonusCalculationService bonusCalculationService;
+
+    @Mock
+    private ClosingCalculationService closingCalculationService;
+
+    @Mock
+    private CommissionRuleIndex commissionRuleIndex;
+
+    @Mock
+    private MetricsService metricsService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private MonthlyClosingService monthlyClosingService;
+
+    @Test
+    void incrementalClosingUsesPreviousSnapshotAsWatermark() {
+        LocalDateTime snapshotAt = LocalDateTime.of(2025, 10, 1, 2, 0);
+        MonthlyClosing previous = MonthlyClosing.builder()
+                .id(1L)
+                .referenceMonth(PREVIOUS_MONTH)
+                .status(MonthlyClosing.Status.COMPLETED)
+                .snapshotAt(snapshotAt)
+                .updatedAt(snapshotAt.plusHours(3))
+                .build();
+
+        when(monthlyClosingRepository.findFirstByStatusAndReferenceMonthLessThanOrderByReferenceMonthDesc(
+                MonthlyClosing.Status.COMPLETED, MONTH)).thenReturn(Optional.of(previous));
+        when(monthlyClosingRepository.findByReferenceMonth(MONTH)).thenReturn(Optional.empty());
+        when(monthlyClosingRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(closingCalculationService.calculateMissingClosingDetails(eq(MONTH), any())).thenReturn(new ClosingTotals());
+        when(closingDetailRepository.getTotalsByMonthlyClosingId(any())).thenReturn(List.<Object[]>of(
+                new Object[]{0L, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, 0L}));
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        monthlyClosingService.runIncrementalClosing(MONTH);
+
+        ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(closingDetailRepository).carryForwardUnchangedDetails(any(), eq(1L), since.capture(),
+                eq(PREVIOUS_MONTH.atDay(1)), eq(MONTH.atDay(1)), anyList());
+        assertEquals(snapshotAt, since.getValue());
+        verify(commissionRuleRepository).findClientTypesWithRulesChangedSince(snapshotAt);
+
+        // O novo fechamento registra o próprio instante de leitura para o mês seguinte
+        ArgumentCaptor<MonthlyClosing> saved = ArgumentCaptor.forClass(MonthlyClosing.class);
+        verify(monthlyClosingRepository, atLeastOnce()).save(saved.capture());
+        assertFalse(saved.getValue().getSnapshotAt().isBefore(startedAt));
+    }
+
+    @Test
+    void resumedClosingKeepsOriginalSnapshot() {
+        LocalDateTime snapshotAt = LocalDateTime.of(2025, 11, 1, 2, 0);
+        MonthlyClosing inProgress = MonthlyClosing.builder()
+                .id(2L)
+                .referenceMonth(MONTH)
+                .status(MonthlyClosing.Status.IN_PROGRESS)
+                .snapshotAt(snapshotAt)
+                .build();
+
+        when(monthlyClosingRepository.existsByReferenceMonth(MONTH)).thenReturn(true);
+        when(monthlyClosingRepository.findByReferenceMonth(MONTH)).thenReturn(Optional.of(inProgress));
+        when(monthlyClosingRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Retomada a partir de checkpoint: parceiros já gravados vieram da leitura original
+        assertEquals(snapshotAt, monthlyClosingService.startClosing(MONTH, true).getSnapshotAt());
+
+        // Nova execução completa: a marca d'água passa a ser o novo início
+        LocalDateTime restartedAt = LocalDateTime.now();
+        assertFalse(monthlyClosingService.startClosing(MONTH).getSnapshotAt().isBefore(restartedAt));
+    }
+}
@@ -0,0 +1,203 @@
+package br.com.ecomercial.partnership.service;
+
+import br.com.ecomercial.partnership.dto.MonthlyClosingResponse;
+import br.com.ecomercial.partnership.entity.Client;
+import br.com.ecomercial.partnership.entity.ClosingDetail;
+import br.com.ecomercial.partnership.entity.CommissionRule;
+import br.com.ecomercial.partnership.repository.BatchInsertRepository;
+import br.com.ecomercial.partnership.repository.ClientRepository;
+import br.com.ecomercial.partnership.repository.ClosingDetailRepository;
+import br.com.ecomercial.partnership.repository.ClosingPartitionRepository;
+import br.com.ecomercial.partnership.repository.ClosingPartnerSummaryRepository;
+import br.com.ecomercial.partnership.repository.CommissionRuleRepository;
+import br.com.ecomercial.partnership.repository.MonthlyClosingRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+/**
+ * Garante que os modos SEQUENTIAL e PARALLEL gravam os mesmos detalhes e totais sobre a mesma
+ * carteira, inclusive com mais partições que clientes e com clientes criados após a leitura do
+ * maior id (cobertos apenas pela última faixa, aberta até Long.MAX_VALUE).
+ */
+@ExtendWith(MockitoExtension.class)
+class ParallelClosingServiceTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2025, 10);
+
+    /** Maior id lido no início do fechamento; o cliente 40 é criado depois dessa leitura */
+    private static final long MAX_CLIENT_ID = 9L;
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    @Mock
+    private BatchInsertRepository batchInsertRepository;
+
+    @Mock
+    private ClosingDetailRepository closingDetailRepository;
+
+    @Mock
+    private ClosingPartitionRepository closingPartitionRepository;
+
+    @Mock
+    private MonthlyClosingRepository monthlyClosingRepository;
+
+    @Mock
+    private ClosingPartnerSummaryRepository closingPartnerSummaryRepository;
+
+    @Mock
+    private PartnerMonthTotalsService partnerMonthTotalsService;
+
+    @Mock
+    private CommissionRuleRepository commissionRuleRepository;
+
+    @Mock
+    private BonusCalculationService bonusCalculationService;
+
+    @Mock
+    private CommissionRuleIndex commissionRuleIndex;
+
+    @Mock
+    private ClientTypeResolver clientTypeResolver;
+
+    @Mock
+    private MetricsService metricsService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final List<Client> clients = List.of(
+            client(1L, "P-1", "20000.00", Client.Status.ACTIVE, null),
+            client(2L, "P-2", "5000.00", Client.Status.ACTIVE, null),
+            client(3L, "P-1", "1234.56", Client.Status.INACTIVE, MONTH.atDay(15)),
+            client(6L, "P-3", "99999.99", Client.Status.ACTIVE, null),
+            client(9L, "P-2", "0.01", Client.Status.ACTIVE, null),
+            client(40L, "P-3", "15000.00", Client.Status.ACTIVE, null));
+
+    private final List<ClosingDetail> inserted = Collections.synchronizedList(new ArrayList<>());
+
+    private ExecutorService executor;
+    private MonthlyClosingService monthlyClosingService;
+    private ParallelClosingService parallelClosingService;
+
+    @BeforeEach
+    void setUp() {
+        ClosingCalculationService closingCalculationService = new ClosingCalculationService(clientRepository,
+                batchInsertRepository, closingDetailRepository, closingPartitionRepository, monthlyClosingRepository,
+                commissionRuleIndex, clientTypeResolver);
+        ReflectionTestUtils.setField(closingCalculationService, "entityManager", entityManager);
+        // Páginas menores que a carteira: a faixa aberta é lida em várias páginas
+        ReflectionTestUtils.setField(closingCalculationService, "chunkSize", 2);
+
+        monthlyClosingService = new MonthlyClosingService(monthlyClosingRepository, closingDetailRepository,
+                closingPartnerSummaryRepository, partnerMonthTotalsService, commissionRuleRepository,
+                bonusCalculationService, closingCalculationService, commissionRuleIndex, metricsService, eventPublisher);
+
+        executor = Executors.newFixedThreadPool(4);
+        parallelClosingService = new ParallelClosingService(monthlyClosingService, monthlyClosingRepository,
+                closingCalculationService, clientRepository, metricsService, executor);
+        // Mais partições que clientes: a maioria das faixas fica vazia
+        ReflectionTestUtils.setField(parallelClosingService, "partitions", 16);
+
+        when(monthlyClosingRepository.findByReferenceMonth(MONTH)).thenReturn(Optional.empty());
+        when(monthlyClosingRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(clientRepository.findActiveInMonthInIdRange(anyLong(), anyLong(), eq(MONTH.atDay(1)), any()))
+                .thenAnswer(invocation -> page(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(3)));
+        when(clientTypeResolver.forClientIdRange(eq(MONTH), anyLong(), anyLong())).thenReturn(new ClientTypeTimeline(List.of()));
+        when(commissionRuleIndex.findTerms(Client.ClientType.TYPE_1, MONTH.atDay(1))).thenReturn(CommissionMath.Terms.of(
+                CommissionRule.builder()
+                        .fixedCommission(new BigDecimal("100.00"))
+                        .percentageCommission(new BigDecimal("0.0333"))
+                        .build()));
+        doAnswer(invocation -> inserted.addAll(invocation.getArgument(0)))
+                .when(batchInsertRepository).insertClosingDetails(anyList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void parallelClosingMatchesSequentialClosing() {
+        MonthlyClosingResponse sequential = monthlyClosingService.runMonthlyClosing(MONTH);
+        List<ClosingDetail> sequentialDetails = takeInserted();
+
+        when(clientRepository.findMaxId()).thenReturn(MAX_CLIENT_ID);
+        MonthlyClosingResponse parallel = parallelClosingService.runMonthlyClosing(MONTH);
+        List<ClosingDetail> parallelDetails = takeInserted();
+
+        assertEquals(clients.size(), sequentialDetails.size());
+        assertEquals(sequentialDetails, parallelDetails);
+
+        assertEquals(sequential.getTotalClients(), parallel.getTotalClients());
+        assertEquals(sequential.getTotalPartners(), parallel.getTotalPartners());
+        assertEquals(sequential.getTotalCommission(), parallel.getTotalCommission());
+        assertEquals(sequential.getTotalBonus(), parallel.getTotalBonus());
+        assertEquals(sequential.getTotalPayout(), parallel.getTotalPayout());
+    }
+
+    /**
+     * Página por keyset (lastId, maxId], como ClientRepository.findActiveInMonthInIdRange
+     */
+    private List<Client> page(long lastId, long maxId, Pageable pageable) {
+        return clients.stream()
+                .filter(client -> client.getId() > lastId && client.getId() <= maxId)
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    /**
+     * Detalhes gravados na execução, em ordem de cliente e sem a referência ao cabeçalho
+     */
+    private List<ClosingDetail> takeInserted() {
+        List<ClosingDetail> details = new ArrayList<>(inserted);
+        inserted.clear();
+        details.forEach(detail -> detail.setMonthlyClosing(null));
+        details.sort(Comparator.comparing(ClosingDetail::getClientId));
+        return details;
+    }
+
+    private static Client client(Long id, String partnerId, String monthlyBilling, Client.Status status,
+                                 LocalDate statusEffectiveFrom) {
+        return Client.builder()
+                .id(id)
+                .name("Cliente " + id)
+                .clientType(Client.ClientType.TYPE_1)
+                .monthlyBilling(new BigDecimal(monthlyBilling))
+                .status(status)
+                .statusEffectiveFrom(statusEffectiveFrom)
+                .partnerId(partnerId)
+                .build();
+    }
+}
@@ -0,0 +1,152 @@
+package br.com.ecomercial.partnership.service;
+
+import br.com.ecomercial.partnership.dto.PartnerDashboardResponse;
+import br.com.ecomercial.partnership.entity.Client;
+import br.com.ecomercial.partnership.entity.CommissionRule;
+import br.com.ecomercial.partnership.entity.Partner;
+import br.com.ecomercial.partnership.entity.User;
+import br.com.ecomercial.partnership.repository.ClientRepository;
+import br.com.ecomercial.partnership.repository.MonthlyClosingRepository;
+import br.com.ecomercial.partnership.repository.PartnerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Garante que o serviço do dashboard chama cada repositório uma única vez (parceiro, clientes,
+ * histórico de tipos e último fechamento), resolve regras pelo índice em memória e não recalcula
+ * o bônus pelos clientes do parceiro. Os repositórios são mocks: o teste verifica as chamadas do
+ * serviço, não o número de comandos SQL emitidos por cada uma.
+ */
+@ExtendWith(MockitoExtension.class)
+class PartnerDashboardServiceTest {
+
+    private static final String PARTNER_ID = "P-1001";
+    private static final YearMonth MONTH = YearMonth.of(2025, 10);
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    @Mock
+    private PartnerRepository partnerRepository;
+
+    @Mock
+    private CommissionRuleIndex commissionRuleIndex;
+
+    @Mock
+    private ClientTypeResolver clientTypeResolver;
+
+    @Mock
+    private MonthlyClosingRepository monthlyClosingRepository;
+
+    @Mock
+    private BonusCalculationService bonusCalculationService;
+
+    @Mock
+    private PartnerDashboardCache partnerDashboardCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private PartnerDashboardService partnerDashboardService;
+
+    @BeforeEach
+    void authenticatePartner() {
+        User user = User.builder().username("parceiro").role(User.Role.PARTNER).partnerId(PARTNER_ID).build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void callsEachRepositoryOnceRegardlessOfClientCount() {
+        Client large = client(1L, "20000.00", Client.Status.ACTIVE, null);
+        Client small = client(2L, "5000.00", Client.Status.ACTIVE, null);
+        Client inactive = client(3L, "8000.00", Client.Status.INACTIVE, LocalDate.of(2025, 8, 1));
+
+        when(partnerDashboardCache.get(eq(PARTNER_ID), eq(MONTH), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<PartnerDashboardResponse>>getArgument(2).get());
+        when(partnerRepository.findById(PARTNER_ID)).thenReturn(Optional.of(
+                Partner.builder().partnerId(PARTNER_ID).name("Parceiro Teste").build()));
+        when(clientRepository.findByPartnerId(PARTNER_ID)).thenReturn(List.of(large, small, inactive));
+        when(clientTypeResolver.forPartner(MONTH, PARTNER_ID)).thenReturn(new ClientTypeTimeline(List.of()));
+        when(commissionRuleIndex.findTerms(Client.ClientType.TYPE_1, MONTH.atDay(1))).thenReturn(CommissionMath.Terms.of(
+                CommissionRule.builder()
+                        .fixedCommission(new BigDecimal("100.00"))
+                        .percentageCommission(new BigDecimal("0.05"))
+                        .build()));
+        when(bonusCalculationService.calculateTotalBonus(MONTH, 2, new BigDecimal("25000.00")))
+                .thenReturn(new BigDecimal("300.00"));
+        when(monthlyClosingRepository.findLastCompletedMonth()).thenReturn(Optional.of(YearMonth.of(2025, 9)));
+
+        PartnerDashboardResponse dashboard = partnerDashboardService.getPartnerDashboard(MONTH);
+
+        assertEquals(2, dashboard.getActiveClients());
+        assertEquals(new BigDecimal("1450.00"), dashboard.getEstimatedCommission());
+        assertEquals(new BigDecimal("300.00"), dashboard.getEstimatedBonus());
+        assertEquals(new BigDecimal("1750.00"), dashboard.getEstimatedTotal());
+        assertEquals(new BigDecimal("25000.00"), dashboard.getTotalClientBilling());
+        assertEquals(new BigDecimal("12500.00"), dashboard.getAverageClientBilling());
+        assertEquals("2025-09", dashboard.getLastClosing());
+        assertEquals(2, dashboard.getClientDetails().size());
+        assertEquals(new BigDecimal("1100.00"), dashboard.getClientDetails().get(0).getEstimatedCommission());
+        assertEquals(new BigDecimal("400.00"), dashboard.getClientDetails().get(0).getEstimatedBonus());
+        assertEquals(new BigDecimal("350.00"), dashboard.getClientDetails().get(1).getEstimatedCommission());
+
+        // Uma chamada por repositório, independentemente do número de clientes
+        verify(partnerRepository, times(1)).findById(PARTNER_ID);
+        verify(clientRepository, times(1)).findByPartnerId(PARTNER_ID);
+        verify(clientTypeResolver, times(1)).forPartner(MONTH, PARTNER_ID);
+        verify(monthlyClosingRepository, times(1)).findLastCompletedMonth();
+        verifyNoMoreInteractions(partnerRepository, clientRepository, clientTypeResolver, monthlyClosingRepository);
+
+        // Uma busca de regra por cliente ativo no mês e nenhum recálculo de bônus por parceiro
+        verify(commissionRuleIndex, times(2)).findTerms(Client.ClientType.TYPE_1, MONTH.atDay(1));
+        verify(bonusCalculationService, never()).calculateTotalBonusForPartner(any(), any());
+
+        // Montado em transação somente leitura, também quando chamado pelo cache fora do proxy
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+
+    private Client client(Long id, String monthlyBilling, Client.Status status, LocalDate statusEffectiveFrom) {
+        return Client.builder()
+                .id(id)
+                .name("Cliente " + id)
+                .clientType(Client.ClientType.TYPE_1)
+                .monthlyBilling(new BigDecimal(monthlyBilling))
+                .status(status)
+                .statusEffectiveFrom(statusEffectiveFrom)
+                .partnerId(PARTNER_ID)
+                .build();
+    }
+}